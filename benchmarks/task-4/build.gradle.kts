@@ -0,0 +1,7 @@
+plugins {
+    id("jmh-conventions")
+}
+
+dependencies {
+    jmh(project(":task-4"))
+}
@@ -0,0 +1,75 @@
+package iits.workshop.htmx.benchmarks;
+
+import iits.workshop.htmx.SessionAttributeSerializer;
+import iits.workshop.htmx.model.CarModel;
+import iits.workshop.htmx.model.Make;
+import iits.workshop.htmx.model.Order;
+import iits.workshop.htmx.model.OrderDraft;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+/**
+ * Session (de)serialization of a wizard order: plain Java serialization of the {@link Order}
+ * entity graph, as the session store did before, against the {@link OrderDraft} format.
+ * {@code modelsPerMake} controls how much of the catalog hangs off the selected make.
+ */
+@State(Scope.Benchmark)
+public class OrderSessionBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int modelsPerMake;
+
+    private final SerializingConverter javaSerializer = new SerializingConverter();
+    private final DeserializingConverter javaDeserializer = new DeserializingConverter(getClass().getClassLoader());
+    private final SessionAttributeSerializer draftSerializer = new SessionAttributeSerializer(getClass().getClassLoader());
+
+    private Order order;
+    private byte[] javaSerialized;
+    private byte[] draftSerialized;
+
+    @Setup
+    public void setUp() {
+        Make make = new Make("Volkswagen");
+        make.setId(1L);
+        for (int i = 0; i < modelsPerMake; i++) {
+            CarModel model = new CarModel("Model " + i, make);
+            model.setId((long) i + 1);
+            make.getModels().add(model);
+        }
+
+        order = new Order();
+        order.updateProductSelection("Sedan", make, make.getModels().getFirst(), 2);
+        order.updateCustomization("Midnight Blue", "Leather", "All-Season");
+        order.updateDeliveryInformation("Hauptstrasse 1, 10115 Berlin", "Erika Mustermann",
+                "erika@example.com", "+49 30 123456");
+        order.updatePaymentInformation("CREDIT_CARD", "Hauptstrasse 1, 10115 Berlin");
+
+        javaSerialized = javaSerializer.convert(order);
+        draftSerialized = draftSerializer.serialize(OrderDraft.fromOrder(order));
+    }
+
+    @Benchmark
+    public byte[] serializeOrderEntity() {
+        return javaSerializer.convert(order);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderDraft() {
+        return draftSerializer.serialize(OrderDraft.fromOrder(order));
+    }
+
+    @Benchmark
+    public Object deserializeOrderEntity() {
+        return javaDeserializer.convert(javaSerialized);
+    }
+
+    @Benchmark
+    public Order deserializeOrderDraft() {
+        return ((OrderDraft) draftSerializer.deserialize(draftSerialized)).toOrder();
+    }
+}
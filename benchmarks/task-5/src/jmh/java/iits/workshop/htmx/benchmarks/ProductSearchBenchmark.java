@@ -0,0 +1,85 @@
+package iits.workshop.htmx.benchmarks;
+
+import iits.workshop.htmx.Application;
+import iits.workshop.htmx.Product;
+import iits.workshop.htmx.ProductRepository;
+import iits.workshop.htmx.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Product search of task-5: the LIKE query of {@link ProductRepository#searchProducts(String)}
+ * against the in-memory index behind {@link ProductService#searchProducts(String)}.
+ */
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final String[] CATEGORIES = {"Electronics", "Home & Kitchen", "Sports", "Books", "Accessories"};
+    private static final String[] ADJECTIVES = {"Wireless", "Premium", "Compact", "Ergonomic", "Portable", "Classic"};
+    private static final String[] ITEMS = {"Headphones", "Keyboard", "Water Bottle", "Yoga Mat", "Coffee Maker", "Desk Lamp"};
+
+    @Param({"100", "1000", "10000"})
+    private int products;
+
+    @Param({"wireless", "coffee mak", "49.99"})
+    private String term;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductService productService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+
+        productRepository.deleteAllInBatch();
+        Random random = new Random(42);
+        List<Product> batch = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            String item = ITEMS[random.nextInt(ITEMS.length)];
+            batch.add(new Product(
+                    adjective + " " + item + " " + i,
+                    BigDecimal.valueOf(random.nextInt(200) + 0.99),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    "A " + adjective.toLowerCase() + " " + item.toLowerCase() + " for everyday use"
+            ));
+            if (batch.size() == 1000) {
+                productRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        productRepository.saveAll(batch);
+        productService.rebuildSearchIndex();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> repositorySearch() {
+        return productRepository.searchProducts(term);
+    }
+
+    @Benchmark
+    public List<Product> serviceSearch() {
+        return productService.searchProducts(term);
+    }
+}
@@ -0,0 +1,102 @@
+package iits.workshop.htmx.benchmarks;
+
+import iits.workshop.htmx.Application;
+import iits.workshop.htmx.DashboardService;
+import iits.workshop.htmx.PermissionRow;
+import iits.workshop.htmx.Role;
+import iits.workshop.htmx.RoleRepository;
+import iits.workshop.htmx.RoleRow;
+import iits.workshop.htmx.TableChunk;
+import iits.workshop.htmx.TableQuery;
+import iits.workshop.htmx.User;
+import iits.workshop.htmx.UserRepository;
+import iits.workshop.htmx.UserRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keyset-paginated chunks {@link DashboardService} serves to the dashboard tables, with a
+ * growing number of users. The middle chunk shows whether a deep position costs more than the first.
+ */
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+    private TableQuery middleUsers;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        dashboardService = context.getBean(DashboardService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<Role> roles = context.getBean(RoleRepository.class).findAll();
+
+        userRepository.deleteAllInBatch();
+        List<User> batch = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            batch.add(new User("user" + i, "user" + i + "@example.com", roles.get(i % roles.size())));
+            if (batch.size() == 1000) {
+                userRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        userRepository.saveAll(batch);
+
+        TableQuery query = TableQuery.from(Map.of());
+        for (int scrolled = 0; scrolled < users / 2; ) {
+            TableChunk<UserRow> chunk = dashboardService.getUsers(query);
+            if (!chunk.hasMore()) {
+                break;
+            }
+            scrolled += chunk.rows().size();
+            query = TableQuery.from(Map.of("cursor", chunk.nextCursor()));
+        }
+        middleUsers = query;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TableChunk<UserRow> getFirstUsers() {
+        return dashboardService.getUsers(TableQuery.from(Map.of()));
+    }
+
+    @Benchmark
+    public TableChunk<UserRow> getMiddleUsers() {
+        return dashboardService.getUsers(middleUsers);
+    }
+
+    @Benchmark
+    public TableChunk<UserRow> getUsersByRole() {
+        return dashboardService.getUsers(TableQuery.from(Map.of("role", "admin")));
+    }
+
+    @Benchmark
+    public TableChunk<RoleRow> getRoles() {
+        return dashboardService.getRoles(TableQuery.from(Map.of()));
+    }
+
+    @Benchmark
+    public TableChunk<PermissionRow> getPermissions() {
+        return dashboardService.getPermissions(TableQuery.from(Map.of()));
+    }
+}
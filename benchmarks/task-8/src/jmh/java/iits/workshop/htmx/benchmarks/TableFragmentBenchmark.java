@@ -0,0 +1,81 @@
+package iits.workshop.htmx.benchmarks;
+
+import iits.workshop.htmx.Application;
+import iits.workshop.htmx.TableChunk;
+import iits.workshop.htmx.TableQuery;
+import iits.workshop.htmx.UserRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Thymeleaf rendering of the dashboard users table fragment, without any database access.
+ */
+@State(Scope.Benchmark)
+public class TableFragmentBenchmark {
+
+    @Param({"10", "50", "500"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private SpringTemplateEngine templateEngine;
+    private IWebExchange exchange;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        templateEngine = context.getBean(SpringTemplateEngine.class);
+
+        MockServletContext servletContext = new MockServletContext();
+        exchange = JakartaServletWebApplication.buildApplication(servletContext).buildExchange(
+                new MockHttpServletRequest(servletContext, "GET", "/dashboard/users"),
+                new MockHttpServletResponse());
+
+        List<UserRow> users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            users.add(new UserRow((long) i + 1, "user" + i, "user" + i + "@example.com", "USER"));
+        }
+        variables = Map.of(
+                "chunk", new TableChunk<>(users, "next"),
+                "query", TableQuery.from(Map.of())
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String renderUsersTable() {
+        return templateEngine.process("fragments/tables", Set.of("usersTable"),
+                new WebContext(exchange, Locale.ENGLISH, variables));
+    }
+
+    @Benchmark
+    public String renderUserRows() {
+        return templateEngine.process("fragments/tables", Set.of("userRows"),
+                new WebContext(exchange, Locale.ENGLISH, variables));
+    }
+}
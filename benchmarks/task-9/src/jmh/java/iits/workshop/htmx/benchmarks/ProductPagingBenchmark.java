@@ -0,0 +1,88 @@
+package iits.workshop.htmx.benchmarks;
+
+import iits.workshop.htmx.Application;
+import iits.workshop.htmx.Product;
+import iits.workshop.htmx.ProductPage;
+import iits.workshop.htmx.ProductRepository;
+import iits.workshop.htmx.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Product table of task-9: {@link ProductService#searchProducts(String, String, String, String)}
+ * for the first page, a follow-up page by cursor and a name search.
+ */
+@State(Scope.Benchmark)
+public class ProductPagingBenchmark {
+
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Food", "Books", "Toys"};
+    private static final String[] ITEMS = {"Laptop", "Mouse", "Keyboard", "Shirt", "Coffee", "Novel", "Puzzle"};
+
+    @Param({"1000", "10000", "50000"})
+    private int products;
+
+    @Param({"name", "price"})
+    private String sortBy;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private String nextCursor;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+
+        productRepository.deleteAllInBatch();
+        Random random = new Random(42);
+        List<Product> batch = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            Product product = new Product();
+            product.setName(ITEMS[random.nextInt(ITEMS.length)] + " " + (i + 1));
+            product.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            product.setPrice(Math.round((random.nextDouble() * 1000 + 1) * 100) / 100.0);
+            product.setStock(random.nextInt(500));
+            batch.add(product);
+            if (batch.size() == 1000) {
+                productRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        productRepository.saveAll(batch);
+
+        nextCursor = productService.searchProducts(null, null, sortBy, "asc").nextCursor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductPage firstPage() {
+        return productService.searchProducts(null, null, sortBy, "asc");
+    }
+
+    @Benchmark
+    public ProductPage nextPage() {
+        return productService.searchProducts(null, nextCursor, sortBy, "asc");
+    }
+
+    @Benchmark
+    public ProductPage nameSearch() {
+        return productService.searchProducts("laptop", null, sortBy, "asc");
+    }
+}
@@ -10,4 +10,5 @@ repositories {
 dependencies {
     implementation("org.springframework.boot:spring-boot-gradle-plugin:4.0.0")
     implementation("io.spring.gradle:dependency-management-plugin:1.1.7")
+    implementation("me.champeau.jmh:jmh-gradle-plugin:0.7.3")
 }
@@ -0,0 +1,44 @@
+import org.springframework.boot.gradle.plugin.SpringBootPlugin
+
+plugins {
+    java
+    id("io.spring.dependency-management")
+    id("me.champeau.jmh")
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencyManagement {
+    imports {
+        mavenBom(SpringBootPlugin.BOM_COORDINATES)
+    }
+}
+
+dependencies {
+    jmh("org.springframework.boot:spring-boot-starter-data-jpa")
+    jmh("org.springframework.boot:spring-boot-starter-thymeleaf")
+    jmh("org.springframework.boot:spring-boot-starter-webmvc")
+    jmh("org.springframework:spring-test")
+}
+
+// Results are written as JSON per module so runs of different releases can be diffed.
+// Narrow a run with -Pjmh.includes=<regex>.
+jmh {
+    jmhVersion.set("1.37")
+    benchmarkMode.set(listOf("avgt"))
+    timeUnit.set("us")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/${project.name}.json"))
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.set(listOf(it)) }
+}
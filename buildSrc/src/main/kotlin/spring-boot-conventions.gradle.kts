@@ -21,6 +21,8 @@ repositories {
 }
 
 dependencies {
+    implementation(project(":instrumentation"))
+    implementation(project(":web-support"))
     implementation("org.springframework.boot:spring-boot-h2console")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
@@ -28,16 +30,27 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-thymeleaf")
     implementation("io.github.wimdeblauwe:htmx-spring-boot:5.0.0")
     implementation("io.github.wimdeblauwe:htmx-spring-boot-thymeleaf:5.0.0")
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("org.hibernate.orm:hibernate-micrometer")
     compileOnly("org.projectlombok:lombok")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     runtimeOnly("com.h2database:h2")
+    runtimeOnly("org.ehcache:ehcache::jakarta")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-actuator-test")
     testImplementation("org.springframework.boot:spring-boot-starter-data-jpa-test")
     testImplementation("org.springframework.boot:spring-boot-starter-webmvc-test")
+    testImplementation(testFixtures(project(":instrumentation")))
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
+// Virtual threads are on by default; -Pworkshop.virtualThreads=false runs on platform threads for comparison
+val virtualThreads = providers.gradleProperty("workshop.virtualThreads").getOrElse("true")
+
+tasks.withType<JavaExec>().configureEach {
+    systemProperty("workshop.virtual-threads.enabled", virtualThreads)
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
@@ -0,0 +1,33 @@
+import org.springframework.boot.gradle.plugin.SpringBootPlugin
+
+plugins {
+    `java-library`
+    `java-test-fixtures`
+    id("io.spring.dependency-management")
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencyManagement {
+    imports {
+        mavenBom(SpringBootPlugin.BOM_COORDINATES)
+    }
+}
+
+// Spring is provided by the applications that apply spring-boot-conventions
+dependencies {
+    implementation("io.micrometer:micrometer-java21")
+    implementation("net.ttddyy:datasource-proxy:1.10.1")
+    compileOnly("org.springframework.boot:spring-boot-starter-actuator")
+    compileOnly("org.springframework.boot:spring-boot-starter-webmvc")
+    testFixturesCompileOnly("org.springframework.boot:spring-boot-starter-webmvc")
+    testFixturesCompileOnly("org.springframework.boot:spring-boot-starter-webmvc-test")
+}
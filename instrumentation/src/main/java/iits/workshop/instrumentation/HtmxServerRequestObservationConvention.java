@@ -0,0 +1,63 @@
+package iits.workshop.instrumentation;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.regex.Pattern;
+
+/**
+ * Extends {@code http.server.requests} with the handler method and htmx tags: whether htmx sent
+ * the request, whether it named a target element and whether a fragment or a full page came back.
+ * The target id itself is client supplied and unbounded, so it only goes on traces.
+ */
+public class HtmxServerRequestObservationConvention extends DefaultServerRequestObservationConvention {
+
+    // Keeps trace attributes short; anything that is not a plausible element id is folded together
+    private static final Pattern ELEMENT_ID = Pattern.compile("[A-Za-z][\\w-]{0,39}");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        HttpServletRequest request = context.getCarrier();
+        return super.getLowCardinalityKeyValues(context).and(
+                KeyValue.of("handler", handler(request)),
+                KeyValue.of("hx.request", String.valueOf("true".equals(request.getHeader("HX-Request")))),
+                KeyValue.of("hx.target", hasTarget(request) ? "present" : "absent"),
+                KeyValue.of("response.kind", responseKind(request)));
+    }
+
+    @Override
+    public KeyValues getHighCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getHighCardinalityKeyValues(context)
+                .and(KeyValue.of("hx.target.id", targetId(context.getCarrier())));
+    }
+
+    private static String handler(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return "none";
+    }
+
+    private static boolean hasTarget(HttpServletRequest request) {
+        String target = request.getHeader("HX-Target");
+        return target != null && !target.isEmpty();
+    }
+
+    private static String targetId(HttpServletRequest request) {
+        if (!hasTarget(request)) {
+            return "none";
+        }
+        String target = request.getHeader("HX-Target");
+        return ELEMENT_ID.matcher(target).matches() ? target : "other";
+    }
+
+    private static String responseKind(HttpServletRequest request) {
+        Object kind = request.getAttribute(ResponseKindInterceptor.ATTRIBUTE);
+        return kind != null ? kind.toString() : "none";
+    }
+}
@@ -0,0 +1,82 @@
+package iits.workshop.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Times every controller handler, {@code @Service} method and Spring Data repository query, with
+ * percentiles, tags HTTP requests with what htmx asked for, and counts the SQL each request issues.
+ * Picked up by every module that applies the spring-boot-conventions plugin.
+ */
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+public class InstrumentationAutoConfiguration {
+
+    @Bean
+    public PercentileMeterFilter percentileMeterFilter() {
+        return new PercentileMeterFilter();
+    }
+
+    @Bean
+    public static ServiceTimingPostProcessor serviceTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ServiceTimingPostProcessor(meterRegistry);
+    }
+
+    /**
+     * Publishes {@code jvm.threads.virtual.pinned} from the JFR {@code jdk.VirtualThreadPinned}
+     * event, so carrier threads held by blocking calls inside {@code synchronized} show up.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class HtmxRequestInstrumentation implements WebMvcConfigurer {
+
+        @Bean
+        public HtmxServerRequestObservationConvention htmxServerRequestObservationConvention() {
+            return new HtmxServerRequestObservationConvention();
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new ResponseKindInterceptor());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(ProxyDataSourceBuilder.class)
+    @ConditionalOnProperty(prefix = "workshop.sql", name = "enabled", matchIfMissing = true)
+    @EnableConfigurationProperties(SqlMonitoringProperties.class)
+    static class SqlMonitoring {
+
+        @Bean
+        static SqlMonitoringDataSourcePostProcessor sqlMonitoringDataSourcePostProcessor(
+                ObjectProvider<SqlMonitoringProperties> properties) {
+            return new SqlMonitoringDataSourcePostProcessor(properties);
+        }
+
+        @Bean
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+        SqlMonitoringFilter sqlMonitoringFilter(SqlMonitoringProperties properties,
+                                                ObjectProvider<MeterRegistry> meterRegistry) {
+            return new SqlMonitoringFilter(properties, meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package iits.workshop.instrumentation;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+import java.util.Set;
+
+/**
+ * Publishes p50/p95/p99 and a histogram for the request, service and repository timers, so slow
+ * fragment swaps show up in the tail rather than vanishing in the mean.
+ */
+public class PercentileMeterFilter implements MeterFilter {
+
+    static final Set<String> TIMERS = Set.of(
+            "http.server.requests",
+            ServiceTimingInterceptor.TIMER,
+            "spring.data.repository.invocations");
+
+    private static final DistributionStatisticConfig PERCENTILES = DistributionStatisticConfig.builder()
+            .percentiles(0.5, 0.95, 0.99)
+            .percentilesHistogram(true)
+            .build();
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (TIMERS.contains(id.getName())) {
+            return PERCENTILES.merge(config);
+        }
+        return config;
+    }
+}
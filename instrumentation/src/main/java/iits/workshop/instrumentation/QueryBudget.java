@@ -0,0 +1,21 @@
+package iits.workshop.instrumentation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many SQL statements a controller handler may issue per request. Requests over
+ * budget are logged; with {@code workshop.sql.fail-on-budget=true} they fail with a
+ * {@link QueryBudgetExceededException}. Tests check handlers against their budget by extending
+ * {@code QueryBudgetTestSupport} from this module's test fixtures.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface QueryBudget {
+
+    int statements();
+}
@@ -0,0 +1,8 @@
+package iits.workshop.instrumentation;
+
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package iits.workshop.instrumentation;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Remembers whether a handler rendered a Thymeleaf fragment ({@code "view :: fragment"}), a full
+ * page, a redirect or wrote the body itself, for {@link HtmxServerRequestObservationConvention}.
+ */
+public class ResponseKindInterceptor implements HandlerInterceptor {
+
+    static final String ATTRIBUTE = ResponseKindInterceptor.class.getName() + ".kind";
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        request.setAttribute(ATTRIBUTE, kindOf(modelAndView));
+    }
+
+    private static String kindOf(ModelAndView modelAndView) {
+        if (modelAndView == null) {
+            return "body";
+        }
+        String viewName = modelAndView.getViewName();
+        if (viewName == null) {
+            return "page";
+        }
+        if (viewName.startsWith("redirect:")) {
+            return "redirect";
+        }
+        return viewName.contains("::") ? "fragment" : "page";
+    }
+}
@@ -0,0 +1,49 @@
+package iits.workshop.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+
+/**
+ * Records a {@code workshop.service} timer per service class and method.
+ */
+public class ServiceTimingInterceptor implements MethodInterceptor {
+
+    static final String TIMER = "workshop.service";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ServiceTimingInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null || method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .description("Time spent in service methods")
+                    .tag("class", AopUtils.getTargetClass(invocation.getThis()).getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+}
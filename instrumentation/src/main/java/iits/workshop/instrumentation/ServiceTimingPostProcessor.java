@@ -0,0 +1,23 @@
+package iits.workshop.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+/**
+ * Adds {@link ServiceTimingInterceptor} to every {@code @Service} bean. Joins an existing proxy,
+ * such as the transactional one, instead of wrapping it, and sits outermost so the timing includes
+ * the commit.
+ */
+public class ServiceTimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public ServiceTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(Service.class, true),
+                new ServiceTimingInterceptor(meterRegistry));
+        setBeforeExistingAdvisors(true);
+    }
+}
@@ -0,0 +1,34 @@
+package iits.workshop.instrumentation;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@link DataSource} so its statements and rows are counted per request.
+ */
+class SqlMonitoringDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlMonitoringProperties> properties;
+
+    SqlMonitoringDataSourcePostProcessor(ObjectProvider<SqlMonitoringProperties> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            SqlStatisticsListener listener = new SqlStatisticsListener(properties.getObject());
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener)
+                    .methodListener(listener)
+                    .proxyResultSet()
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,83 @@
+package iits.workshop.instrumentation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link SqlStatistics} scope per request, publishes {@code workshop.sql.statements} and
+ * {@code workshop.sql.rows} per handler, and reports requests over the configured thresholds or
+ * their {@link QueryBudget}.
+ */
+class SqlMonitoringFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMonitoringFilter.class);
+
+    private final SqlMonitoringProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    SqlMonitoringFilter(SqlMonitoringProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statistics.close();
+        }
+
+        HandlerMethod handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method
+                ? method : null;
+        String handlerName = handler != null
+                ? handler.getBeanType().getSimpleName() + "#" + handler.getMethod().getName()
+                : "none";
+        record(handlerName, statistics);
+
+        QueryBudget budget = handler != null ? handler.getMethodAnnotation(QueryBudget.class) : null;
+        if (budget != null && statistics.statements() > budget.statements()) {
+            String message = request.getMethod() + " " + request.getRequestURI() + " (" + handlerName
+                    + ") exceeded its budget of " + budget.statements() + " SQL statements: " + statistics;
+            if (properties.failOnBudget()) {
+                throw new QueryBudgetExceededException(message);
+            }
+            log.warn(message);
+        } else if (statistics.statements() > properties.maxStatements()
+                || statistics.rows() > properties.maxRows()
+                || statistics.elapsedMillis() > properties.maxTime().toMillis()) {
+            log.warn("{} {} ({}) is SQL heavy: {}", request.getMethod(), request.getRequestURI(), handlerName, statistics);
+        }
+    }
+
+    private void record(String handler, SqlStatistics statistics) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        DistributionSummary.builder("workshop.sql.statements")
+                .description("SQL statements per request")
+                .tag("handler", handler)
+                .register(registry)
+                .record(statistics.statements());
+        DistributionSummary.builder("workshop.sql.rows")
+                .description("Rows fetched or updated per request")
+                .tag("handler", handler)
+                .register(registry)
+                .record(statistics.rows());
+    }
+}
@@ -0,0 +1,20 @@
+package iits.workshop.instrumentation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Thresholds for {@code workshop.sql.*}. A request is reported when it exceeds any of them, or the
+ * {@link QueryBudget} declared on its handler.
+ */
+@ConfigurationProperties("workshop.sql")
+public record SqlMonitoringProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int maxStatements,
+        @DefaultValue("5000") long maxRows,
+        @DefaultValue("500ms") Duration maxTime,
+        @DefaultValue("100ms") Duration slowQuery,
+        @DefaultValue("false") boolean failOnBudget) {
+}
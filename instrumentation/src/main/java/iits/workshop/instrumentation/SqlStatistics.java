@@ -0,0 +1,84 @@
+package iits.workshop.instrumentation;
+
+/**
+ * Statements, rows and JDBC time seen on the current thread since {@link #begin()}. Scopes nest:
+ * a statement counts towards every open scope, so a test can measure one call inside a request.
+ *
+ * <pre>{@code
+ * try (SqlStatistics sql = SqlStatistics.begin()) {
+ *     userService.registerUser(user);
+ *     sql.assertWithin(3);
+ * }
+ * }</pre>
+ */
+public final class SqlStatistics implements AutoCloseable {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatistics parent;
+    private int statements;
+    private long rows;
+    private long elapsedMillis;
+
+    private SqlStatistics(SqlStatistics parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void recordStatement(long elapsedMillis, long rows) {
+        for (SqlStatistics scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.elapsedMillis += elapsedMillis;
+            scope.rows += rows;
+        }
+    }
+
+    static void recordRow() {
+        for (SqlStatistics scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows++;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public long elapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Throws {@link QueryBudgetExceededException} if more than {@code maxStatements} statements ran.
+     */
+    public void assertWithin(int maxStatements) {
+        if (statements > maxStatements) {
+            throw new QueryBudgetExceededException(
+                    "Expected at most " + maxStatements + " SQL statements but " + this);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + rows + " rows in " + elapsedMillis + " ms";
+    }
+}
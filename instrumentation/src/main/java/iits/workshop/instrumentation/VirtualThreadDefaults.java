@@ -0,0 +1,36 @@
+package iits.workshop.instrumentation;
+
+import org.springframework.boot.EnvironmentPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs request handling, {@code @Async} and {@code @Scheduled} work on virtual threads unless
+ * {@code workshop.virtual-threads.enabled=false}. With thousands of requests in flight the
+ * connection pool, not the thread pool, bounds concurrency, so Hikari gets a fixed pool sized to
+ * the CPUs and a short connection timeout: waiting requests fail fast instead of piling up.
+ * Everything here is a default, so application.yaml and the command line still win.
+ */
+public class VirtualThreadDefaults implements EnvironmentPostProcessor {
+
+    static final String ENABLED = "workshop.virtual-threads.enabled";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        // Tomcat's default of 8192 connections would cap a 10k connection comparison in either mode
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("server.tomcat.max-connections", "20000");
+        if (environment.getProperty(ENABLED, Boolean.class, true)) {
+            int poolSize = Math.max(10, Runtime.getRuntime().availableProcessors() * 2);
+            defaults.put("spring.threads.virtual.enabled", "true");
+            defaults.put("spring.datasource.hikari.maximum-pool-size", String.valueOf(poolSize));
+            defaults.put("spring.datasource.hikari.minimum-idle", String.valueOf(poolSize));
+            defaults.put("spring.datasource.hikari.connection-timeout", "5000");
+        }
+        environment.getPropertySources().addLast(new MapPropertySource("workshopThreadingDefaults", defaults));
+    }
+}
@@ -0,0 +1,40 @@
+package iits.workshop.instrumentation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Base for tests that run handlers with a {@link QueryBudget} against the whole application. Each
+ * request made through {@link #performWithinBudget} is measured with a {@link SqlStatistics} scope,
+ * which the request's own scope nests in, and its statement count is checked against the budget
+ * declared on the handler that served it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public abstract class QueryBudgetTestSupport {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    protected ResultActions performWithinBudget(RequestBuilder request) throws Exception {
+        ResultActions result;
+        int statements;
+        try (SqlStatistics sql = SqlStatistics.begin()) {
+            result = mockMvc.perform(request);
+            statements = sql.statements();
+        }
+
+        Object handler = result.andReturn().getHandler();
+        QueryBudget budget = handler instanceof HandlerMethod method ? method.getMethodAnnotation(QueryBudget.class) : null;
+        assertThat(budget).as("@QueryBudget on %s", handler).isNotNull();
+        assertThat(statements).as("SQL statements run by %s", handler).isLessThanOrEqualTo(budget.statements());
+        return result;
+    }
+}
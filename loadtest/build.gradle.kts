@@ -0,0 +1,23 @@
+plugins {
+    java
+    application
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation("org.hdrhistogram:HdrHistogram:2.2.2")
+    runtimeOnly("com.h2database:h2:2.3.232")
+}
+
+application {
+    mainClass.set("iits.workshop.loadtest.LoadTest")
+}
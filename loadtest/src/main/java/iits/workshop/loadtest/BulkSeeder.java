@@ -0,0 +1,50 @@
+package iits.workshop.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Writes a {@link SyntheticDataset} through JDBC batches, committing once per batch. The rows
+ * bypass the application, which has to be restarted to see them; see {@link LoadTest}.
+ */
+public class BulkSeeder {
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final int batchSize;
+
+    public BulkSeeder(String jdbcUrl, String username, String password, int batchSize) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.batchSize = batchSize;
+    }
+
+    public long seed(SyntheticDataset dataset, long firstRow, long rows, long seed) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+            connection.setAutoCommit(false);
+            dataset.prepare(connection);
+
+            long written = 0;
+            try (PreparedStatement statement = connection.prepareStatement(dataset.insertSql())) {
+                for (long row = firstRow; row < firstRow + rows; row++) {
+                    dataset.bind(statement, row, SyntheticDataset.randomFor(seed, row));
+                    statement.addBatch();
+                    if (++written % batchSize == 0) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            return written;
+        }
+    }
+}
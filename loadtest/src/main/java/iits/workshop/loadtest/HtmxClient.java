@@ -0,0 +1,95 @@
+package iits.workshop.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * HTTP client of one virtual user. Keeps its own cookies, so session-based flows work, and sends
+ * the {@code HX-Request} header for requests htmx would issue. The underlying {@link HttpClient}
+ * and its connection pool are shared, so ten thousand users do not need ten thousand selectors.
+ */
+public class HtmxClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final CookieManager cookies = new CookieManager();
+    private final URI baseUri;
+    private final LatencyRecorder recorder;
+    private final Duration thinkTime;
+
+    public HtmxClient(HttpClient client, URI baseUri, LatencyRecorder recorder, Duration thinkTime) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.recorder = recorder;
+        this.thinkTime = thinkTime;
+    }
+
+    public static HttpClient newHttpClient() {
+        return HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    public String get(String endpoint, String path, boolean htmx) throws InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(TIMEOUT).GET();
+        if (htmx) {
+            request.header("HX-Request", "true");
+        }
+        return send(endpoint, request.build());
+    }
+
+    public String post(String endpoint, String path, Map<String, String> form) throws InterruptedException {
+        StringJoiner body = new StringJoiner("&");
+        form.forEach((name, value) -> body.add(encode(name) + "=" + encode(value)));
+        return send(endpoint, HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build());
+    }
+
+    public void pause() throws InterruptedException {
+        if (!thinkTime.isZero()) {
+            Thread.sleep(thinkTime);
+        }
+    }
+
+    public static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private String send(String endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(withCookies(request), HttpResponse.BodyHandlers.ofString());
+            cookies.put(request.uri(), response.headers().map());
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+            return response.body();
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return "";
+        }
+    }
+
+    private HttpRequest withCookies(HttpRequest request) throws IOException {
+        List<String> cookieHeader = cookies.get(request.uri(), Map.of()).getOrDefault("Cookie", List.of());
+        if (cookieHeader.isEmpty()) {
+            return request;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        cookieHeader.forEach(value -> builder.header("Cookie", value));
+        return builder.build();
+    }
+}
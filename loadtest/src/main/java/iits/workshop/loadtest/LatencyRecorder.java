@@ -0,0 +1,79 @@
+package iits.workshop.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms in microseconds, safe to record into from many threads.
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long elapsedNanos, boolean success) {
+        Endpoint target = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        target.recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            target.errors.increment();
+        }
+    }
+
+    /**
+     * Drops everything recorded so far, used to discard the warm-up phase.
+     */
+    public void reset() {
+        endpoints.values().forEach(endpoint -> {
+            endpoint.recorder.reset();
+            endpoint.errors.reset();
+        });
+    }
+
+    public void report(Duration elapsed, PrintStream out) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf("%-28s %10s %10s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        Map<String, Endpoint> sorted = new TreeMap<>(endpoints);
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : sorted.entrySet()) {
+            Histogram histogram = entry.getValue().recorder.getIntervalHistogram();
+            long errors = entry.getValue().errors.sum();
+            print(out, entry.getKey(), histogram, seconds, errors);
+            total.add(histogram);
+            totalErrors += errors;
+        }
+        print(out, "total", total, seconds, totalErrors);
+    }
+
+    private static void print(PrintStream out, String name, Histogram histogram, double seconds, long errors) {
+        out.printf("%-28s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                errors);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
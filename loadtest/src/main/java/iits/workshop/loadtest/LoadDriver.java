@@ -0,0 +1,64 @@
+package iits.workshop.loadtest;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closed-loop driver: a fixed number of virtual users each repeat the scenario back to back, so the
+ * offered load adapts to the server's response times. The warm-up phase is recorded and discarded.
+ * Every user runs on its own virtual thread, so tens of thousands of concurrent users are cheap.
+ */
+public class LoadDriver {
+
+    private final URI baseUri;
+    private final Scenario scenario;
+    private final int users;
+    private final Duration thinkTime;
+    private final long seed;
+
+    public LoadDriver(URI baseUri, Scenario scenario, int users, Duration thinkTime, long seed) {
+        this.baseUri = baseUri;
+        this.scenario = scenario;
+        this.users = users;
+        this.thinkTime = thinkTime;
+        this.seed = seed;
+    }
+
+    public void run(Duration warmup, Duration duration, PrintStream out) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient httpClient = HtmxClient.newHttpClient();
+        for (int user = 0; user < users; user++) {
+            Random random = new Random(seed + user);
+            HtmxClient client = new HtmxClient(httpClient, baseUri, recorder, thinkTime);
+            executor.execute(() -> {
+                try {
+                    while (running.get()) {
+                        scenario.visit(client, random);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        Thread.sleep(warmup);
+        recorder.reset();
+        Thread.sleep(duration);
+        recorder.report(duration, out);
+        running.set(false);
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+        }
+        httpClient.close();
+    }
+}
@@ -0,0 +1,116 @@
+package iits.workshop.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point.
+ * <pre>
+ * seed --jdbc-url=jdbc:h2:tcp://localhost/./build/workshop --dataset=task9-products --rows=1000000 [--first-row=0] [--batch-size=1000] [--seed=42]
+ * run  --base-url=http://localhost:8080 --scenario=task5-search [--users=16] [--think-time=0ms] [--warmup=10s] [--duration=60s] [--seed=42]
+ * </pre>
+ * {@code --users} takes a comma separated list to run several concurrency levels back to back,
+ * e.g. {@code --users=1000,10000}. To compare thread models, run the same levels against an app
+ * started normally and one started with {@code -Pworkshop.virtualThreads=false}.
+ * The apps use an in-memory H2 by default. To seed one, start it on a file database in mixed mode
+ * that keeps its tables, e.g. {@code --spring.datasource.url=jdbc:h2:file:./build/workshop;AUTO_SERVER=TRUE
+ * --spring.jpa.hibernate.ddl-auto=update}, seed it, then restart it with the same arguments before
+ * running a scenario. The seeder writes plain JDBC, so a running app never learns about the new
+ * rows: the task-5 search index, the task-9 count cache, the ETag versions and the Hibernate
+ * second-level and query caches are only built from the database at startup.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            return;
+        }
+        Map<String, String> options = parseOptions(args);
+        switch (args[0]) {
+            case "seed" -> seed(options);
+            case "run" -> run(options);
+            default -> usage();
+        }
+    }
+
+    private static void seed(Map<String, String> options) throws Exception {
+        SyntheticDataset dataset = SyntheticDataset.named(required(options, "dataset"));
+        long rows = Long.parseLong(required(options, "rows"));
+        BulkSeeder seeder = new BulkSeeder(
+                required(options, "jdbc-url"),
+                options.getOrDefault("username", "sa"),
+                options.getOrDefault("password", ""),
+                Integer.parseInt(options.getOrDefault("batch-size", "1000")));
+
+        long start = System.nanoTime();
+        long written = seeder.seed(dataset,
+                Long.parseLong(options.getOrDefault("first-row", "0")),
+                rows,
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        System.out.printf("Inserted %d rows in %d ms (%.0f rows/s)%n",
+                written, elapsed.toMillis(), written / (elapsed.toNanos() / 1e9));
+    }
+
+    private static void run(Map<String, String> options) throws Exception {
+        for (String users : options.getOrDefault("users", "16").split(",")) {
+            LoadDriver driver = new LoadDriver(
+                    URI.create(required(options, "base-url")),
+                    Scenario.named(required(options, "scenario")),
+                    Integer.parseInt(users.trim()),
+                    duration(options.getOrDefault("think-time", "0ms")),
+                    Long.parseLong(options.getOrDefault("seed", "42")));
+            System.out.printf("%n%s users%n", users.trim());
+            driver.run(
+                    duration(options.getOrDefault("warmup", "10s")),
+                    duration(options.getOrDefault("duration", "60s")),
+                    System.out);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing --" + name);
+        }
+        return value;
+    }
+
+    /**
+     * Parses durations such as {@code 250ms}, {@code 30s} or {@code 5m}.
+     */
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Unknown duration " + value);
+        };
+    }
+
+    private static void usage() {
+        System.out.println("""
+                Usage:
+                  seed --jdbc-url=<url> --dataset=<task5-products|task9-products|task8-users> --rows=<n> [--first-row=0] [--batch-size=1000] [--seed=42] [--username=sa] [--password=]
+                  run  --base-url=<url> --scenario=<task5-search|task9-paging|task4-wizard> [--users=16[,1000,...]] [--think-time=0ms] [--warmup=10s] [--duration=60s] [--seed=42]""");
+    }
+}
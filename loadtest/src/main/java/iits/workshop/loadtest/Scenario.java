@@ -0,0 +1,152 @@
+package iits.workshop.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Request mixes modelled on how the htmx front ends of the apps talk to the server. One
+ * {@link #visit} is a single user journey; the driver repeats visits back to back.
+ */
+public enum Scenario {
+
+    /**
+     * task-5: open the page, then type a word, one live-search request per keystroke.
+     */
+    TASK5_SEARCH("task5-search") {
+        @Override
+        void visit(HtmxClient client, Random random) throws InterruptedException {
+            client.get("GET /", "/", false);
+            String word = pick(SEARCH_WORDS, random);
+            for (int length = 1; length <= word.length(); length++) {
+                client.pause();
+                client.get("GET /products/search",
+                        "/products/search?search=" + HtmxClient.encode(word.substring(0, length)), true);
+            }
+        }
+    },
+
+    /**
+     * task-9: open a sorted, sometimes filtered table, load the count and follow a few Next links.
+     */
+    TASK9_PAGING("task9-paging") {
+        @Override
+        void visit(HtmxClient client, Random random) throws InterruptedException {
+            String search = random.nextInt(4) == 0 ? pick(SEARCH_WORDS, random) : "";
+            String query = "?search=" + HtmxClient.encode(search)
+                    + "&sortBy=" + pick(SORT_COLUMNS, random)
+                    + "&direction=" + (random.nextBoolean() ? "asc" : "desc");
+
+            String page = client.get("GET /", "/" + query, false);
+            client.get("GET /products/count", "/products/count?search=" + HtmxClient.encode(search), true);
+            for (int i = 0; i < 3; i++) {
+                String cursor = nextCursor(page);
+                if (cursor == null) {
+                    return;
+                }
+                client.pause();
+                page = client.get("GET / (next page)", "/" + query + "&cursor=" + cursor, false);
+            }
+        }
+    },
+
+    /**
+     * task-4: walk the order wizard from step 1 to the confirmation.
+     */
+    TASK4_WIZARD("task4-wizard") {
+        @Override
+        void visit(HtmxClient client, Random random) throws InterruptedException {
+            client.get("GET /order/step1", "/order/step1", false);
+            long makeId = 1 + random.nextInt(5);
+            Matcher model = MODEL_ID.matcher(
+                    client.get("GET /order/api/models", "/order/api/models?makeId=" + makeId, false));
+            if (!model.find()) {
+                return;
+            }
+            client.pause();
+            client.post("POST /order/step1", "/order/step1", form(
+                    "productCategory", pick(new String[]{"New", "Used", "Certified"}, random),
+                    "makeId", String.valueOf(makeId),
+                    "modelId", model.group(1),
+                    "quantity", String.valueOf(1 + random.nextInt(3))));
+
+            client.get("GET /order/step2", "/order/step2", false);
+            client.pause();
+            client.post("POST /order/step2", "/order/step2", form(
+                    "color", pick(new String[]{"Black", "White", "Silver", "Blue", "Red"}, random),
+                    "interior", pick(new String[]{"Leather Black", "Leather Beige", "Fabric"}, random),
+                    "tireType", pick(new String[]{"Summer", "Winter", "All Season"}, random)));
+
+            client.get("GET /order/step3", "/order/step3", false);
+            client.pause();
+            client.post("POST /order/step3", "/order/step3", form(
+                    "deliveryAddress", "Hauptstrasse " + (1 + random.nextInt(200)) + ", 10115 Berlin",
+                    "contactName", "Load Test",
+                    "contactEmail", "load-test@example.com",
+                    "contactPhone", "+49 30 123456"));
+
+            client.get("GET /order/step4", "/order/step4", false);
+            client.pause();
+            client.post("POST /order/step4", "/order/step4", form(
+                    "paymentMethod", pick(new String[]{"Credit Card", "Debit Card", "Bank Transfer"}, random),
+                    "billingAddress", "Hauptstrasse 1, 10115 Berlin"));
+
+            client.get("GET /order/step5", "/order/step5", false);
+            client.pause();
+            client.post("POST /order/step5", "/order/step5", Map.of());
+        }
+    };
+
+    private static final String[] SEARCH_WORDS = {"laptop", "keyboard", "coffee", "wireless", "premium", "shoes", "lamp", "novel"};
+    private static final String[] SORT_COLUMNS = {"name", "price", "stock", "id"};
+    private static final Pattern CURSOR = Pattern.compile("cursor=([A-Za-z0-9_-]+)");
+    private static final Pattern MODEL_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final String name;
+
+    Scenario(String name) {
+        this.name = name;
+    }
+
+    abstract void visit(HtmxClient client, Random random) throws InterruptedException;
+
+    public static Scenario named(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.name.equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario " + name);
+    }
+
+    private static String nextCursor(String page) {
+        Matcher matcher = CURSOR.matcher(page);
+        while (matcher.find()) {
+            String cursor = matcher.group(1);
+            try {
+                if (new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).startsWith("F:")) {
+                    return cursor;
+                }
+            } catch (IllegalArgumentException e) {
+                // not one of our cursors
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> form(String... namesAndValues) {
+        Map<String, String> form = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            form.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return form;
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
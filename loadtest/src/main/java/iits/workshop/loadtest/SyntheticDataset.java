@@ -0,0 +1,108 @@
+package iits.workshop.loadtest;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic row generators for the tables of the workshop apps. Row {@code n} only depends on
+ * the seed and {@code n}, so the same arguments always produce the same data.
+ */
+public enum SyntheticDataset {
+
+    TASK5_PRODUCTS("task5-products", "INSERT INTO products (id, name, price, category, description) VALUES (NEXT VALUE FOR products_seq, ?, ?, ?, ?)") {
+        @Override
+        void bind(PreparedStatement statement, long row, Random random) throws SQLException {
+            String adjective = pick(ADJECTIVES, random);
+            String item = pick(ITEMS, random);
+            statement.setString(1, adjective + " " + item + " " + row);
+            statement.setBigDecimal(2, BigDecimal.valueOf(random.nextInt(100_000) + 99, 2));
+            statement.setString(3, pick(CATEGORIES, random));
+            statement.setString(4, adjective + " " + item.toLowerCase() + " for everyday use, item " + row);
+        }
+    },
+
+    TASK9_PRODUCTS("task9-products", "INSERT INTO product (id, name, category, price, stock) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?, ?)") {
+        @Override
+        void bind(PreparedStatement statement, long row, Random random) throws SQLException {
+            statement.setString(1, pick(ADJECTIVES, random) + " " + pick(ITEMS, random) + " " + row);
+            statement.setString(2, pick(CATEGORIES, random));
+            statement.setDouble(3, (random.nextInt(100_000) + 99) / 100.0);
+            statement.setInt(4, random.nextInt(1000));
+        }
+    },
+
+    TASK8_USERS("task8-users", "INSERT INTO users (id, username, email, role_id) VALUES (NEXT VALUE FOR users_seq, ?, ?, ?)") {
+        private List<Long> roleIds = List.of();
+
+        @Override
+        void prepare(Connection connection) throws SQLException {
+            List<Long> ids = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT id FROM roles ORDER BY id")) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+            if (ids.isEmpty()) {
+                throw new IllegalStateException("No roles found, start task-8 once before seeding users");
+            }
+            roleIds = ids;
+        }
+
+        @Override
+        void bind(PreparedStatement statement, long row, Random random) throws SQLException {
+            statement.setString(1, "load-user-" + row);
+            statement.setString(2, "load-user-" + row + "@example.com");
+            statement.setLong(3, roleIds.get(random.nextInt(roleIds.size())));
+        }
+    };
+
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Food", "Books", "Toys", "Sports", "Home", "Garden", "Tools", "Beauty"};
+    private static final String[] ADJECTIVES = {"Premium", "Deluxe", "Classic", "Modern", "Vintage", "Professional", "Budget", "Luxury", "Wireless", "Compact"};
+    private static final String[] ITEMS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Headphones", "Shirt", "Shoes", "Coffee", "Novel", "Puzzle",
+            "Bike", "Lamp", "Chair", "Drill", "Shampoo", "Water Bottle", "Yoga Mat", "Backpack", "Camera", "Watch"};
+
+    private final String name;
+    private final String insertSql;
+
+    SyntheticDataset(String name, String insertSql) {
+        this.name = name;
+        this.insertSql = insertSql;
+    }
+
+    public String insertSql() {
+        return insertSql;
+    }
+
+    /**
+     * Called once on the seeding connection before the first row is bound.
+     */
+    void prepare(Connection connection) throws SQLException {
+    }
+
+    abstract void bind(PreparedStatement statement, long row, Random random) throws SQLException;
+
+    public static SyntheticDataset named(String name) {
+        for (SyntheticDataset dataset : values()) {
+            if (dataset.name.equals(name)) {
+                return dataset;
+            }
+        }
+        throw new IllegalArgumentException("Unknown dataset " + name);
+    }
+
+    static Random randomFor(long seed, long row) {
+        return new Random(seed * 0x9E3779B97F4A7C15L + row);
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
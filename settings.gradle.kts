@@ -18,4 +18,11 @@ include(
     ":task-7",
     ":task-8",
     ":task-9",
+    ":benchmarks:task-4",
+    ":benchmarks:task-5",
+    ":benchmarks:task-8",
+    ":benchmarks:task-9",
+    ":loadtest",
+    ":instrumentation",
+    ":web-support",
 )
\ No newline at end of file
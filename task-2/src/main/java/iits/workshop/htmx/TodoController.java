@@ -1,22 +1,57 @@
 package iits.workshop.htmx;
 
+import iits.workshop.instrumentation.QueryBudget;
+import iits.workshop.web.ContentVersion;
+import iits.workshop.web.StreamingViewRenderer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.view.FragmentsRendering;
 
+import java.util.Map;
+
+/**
+ * htmx requests get back only the affected item plus out-of-band counter updates; plain form
+ * posts still redirect to the full list.
+ */
 @Controller
 @RequiredArgsConstructor
 public class TodoController {
+    private static final String HTMX = "HX-Request=true";
+    private static final String ITEM = "fragments/todo-item :: todo-item(todo=${todo})";
+    private static final String COUNTER = "fragments/todo-counter :: todo-counter(count=${count}, oob=true)";
+
     private final TodoService todoService;
+    private final StreamingViewRenderer streamingViewRenderer;
+    private final ContentVersion contentVersion;
 
     @GetMapping("/")
-    public String index(Model model) {
-        model.addAttribute("todos", todoService.findAll());
-        return "index";
+    public void index(ServletWebRequest webRequest, HttpServletRequest request, HttpServletResponse response) {
+        if (contentVersion.checkNotModified(webRequest, "page")) {
+            return;
+        }
+        streamingViewRenderer.render("index", Map.of("count", todoService.count()), "todos",
+                todoService::streamAll, request, response);
+    }
+
+    @PostMapping(path = "/todos", headers = HTMX)
+    @QueryBudget(statements = 1)
+    public FragmentsRendering createTodoFragment(@RequestParam String text, Model model) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Todo text is required");
+        }
+        model.addAttribute("todo", todoService.save(text));
+        model.addAttribute("count", todoService.count());
+        return FragmentsRendering.fragment(ITEM).fragment(COUNTER).build();
     }
 
     @PostMapping("/todos")
@@ -27,12 +62,31 @@ public class TodoController {
         return "redirect:/";
     }
 
+    @PostMapping(path = "/todos/{id}/toggle", headers = HTMX)
+    @QueryBudget(statements = 1)
+    public FragmentsRendering toggleTodoFragment(@PathVariable Long id, Model model) {
+        TodoItem todo = todoService.toggleDone(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        model.addAttribute("todo", todo);
+        model.addAttribute("count", todoService.count());
+        return FragmentsRendering.fragment(ITEM).fragment(COUNTER).build();
+    }
+
     @PostMapping("/todos/{id}/toggle")
     public String toggleTodo(@PathVariable Long id) {
         todoService.toggleDone(id);
         return "redirect:/";
     }
 
+    // The empty main response removes the item; only the counters are swapped out of band
+    @PostMapping(path = "/todos/{id}/delete", headers = HTMX)
+    @QueryBudget(statements = 1)
+    public FragmentsRendering deleteTodoFragment(@PathVariable Long id, Model model) {
+        todoService.delete(id);
+        model.addAttribute("count", todoService.count());
+        return FragmentsRendering.fragment(COUNTER).build();
+    }
+
     @PostMapping("/todos/{id}/delete")
     public String deleteTodo(@PathVariable Long id) {
         todoService.delete(id);
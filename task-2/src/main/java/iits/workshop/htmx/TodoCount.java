@@ -0,0 +1,8 @@
+package iits.workshop.htmx;
+
+public record TodoCount(long total, long done) {
+
+    public long open() {
+        return total - done;
+    }
+}
@@ -0,0 +1,55 @@
+package iits.workshop.htmx;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Running totals for the counter shown above the list. Counted once at startup and then adjusted
+ * by each committed mutation, so keeping the counter current costs nothing per action however
+ * long the list is.
+ */
+@Component
+@RequiredArgsConstructor
+public class TodoCounters {
+
+    private final TodoRepository todoRepository;
+    // Not a monitor: load() queries while holding it, which would pin a virtual thread's carrier
+    private final Lock lock = new ReentrantLock();
+    private volatile TodoCount count = new TodoCount(0, 0);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        update(() -> new TodoCount(todoRepository.count(), todoRepository.countByDoneTrue()));
+    }
+
+    public TodoCount get() {
+        return count;
+    }
+
+    void added() {
+        update(() -> new TodoCount(count.total() + 1, count.done()));
+    }
+
+    void toggled(boolean done) {
+        update(() -> new TodoCount(count.total(), count.done() + (done ? 1 : -1)));
+    }
+
+    void removed(boolean done) {
+        update(() -> new TodoCount(count.total() - 1, count.done() - (done ? 1 : 0)));
+    }
+
+    private void update(Supplier<TodoCount> next) {
+        lock.lock();
+        try {
+            count = next.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
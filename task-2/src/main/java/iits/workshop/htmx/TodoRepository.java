@@ -1,8 +1,37 @@
 package iits.workshop.htmx;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface TodoRepository extends JpaRepository<TodoItem, Long> {
+
+    @Query("SELECT t FROM TodoItem t ORDER BY t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<TodoItem> streamAll();
+
+    long countByDoneTrue();
+
+    /**
+     * Flips {@code done} and reads back the updated row in the same statement, using H2's
+     * data change delta table. {@code FINAL TABLE} is H2 (and DB2) syntax, so {@link TodoService}
+     * only calls this on H2 and loads and updates the entity elsewhere.
+     */
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE todo_item SET done = NOT done WHERE id = :id)", nativeQuery = true)
+    Optional<TodoItem> toggleDone(@Param("id") Long id);
+
+    /**
+     * Deletes the row and returns it as it was, in one statement. Like {@link #toggleDone}, this
+     * relies on H2's {@code OLD TABLE} and is only called on H2.
+     */
+    @Query(value = "SELECT * FROM OLD TABLE (DELETE FROM todo_item WHERE id = :id)", nativeQuery = true)
+    Optional<TodoItem> deleteReturning(@Param("id") Long id);
 }
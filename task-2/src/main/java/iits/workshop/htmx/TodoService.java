@@ -1,32 +1,96 @@
 package iits.workshop.htmx;
 
-import lombok.RequiredArgsConstructor;
+import iits.workshop.web.ContentVersion;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 public class TodoService {
     private final TodoRepository todoRepository;
+    private final TodoCounters todoCounters;
+    private final ContentVersion contentVersion;
+    private final boolean deltaTables;
+
+    public TodoService(TodoRepository todoRepository, TodoCounters todoCounters, ContentVersion contentVersion,
+                       DataSource dataSource) {
+        this.todoRepository = todoRepository;
+        this.todoCounters = todoCounters;
+        this.contentVersion = contentVersion;
+        this.deltaTables = isH2(dataSource);
+    }
 
     public List<TodoItem> findAll() {
         return todoRepository.findAll();
     }
 
+    public Stream<TodoItem> streamAll() {
+        return todoRepository.streamAll();
+    }
+
+    public TodoCount count() {
+        return todoCounters.get();
+    }
+
+    @Transactional
     public TodoItem save(String text) {
-        TodoItem todoItem = new TodoItem(text);
-        return todoRepository.save(todoItem);
+        TodoItem todoItem = todoRepository.save(new TodoItem(text));
+        afterCommit(todoCounters::added);
+        return todoItem;
     }
 
-    public void toggleDone(Long id) {
-        todoRepository.findById(id).ifPresent(todo -> {
-            todo.setDone(!todo.isDone());
-            todoRepository.save(todo);
-        });
+    /**
+     * Flips the item with a single UPDATE and returns it in its new state, or empty if it is gone.
+     * Off H2 the item is loaded and then updated, one statement over the toggle's budget.
+     */
+    @Transactional
+    public Optional<TodoItem> toggleDone(Long id) {
+        Optional<TodoItem> todo = deltaTables
+                ? todoRepository.toggleDone(id)
+                : todoRepository.findById(id).map(loaded -> {
+                    loaded.setDone(!loaded.isDone());
+                    return loaded;
+                });
+        todo.ifPresent(toggled -> afterCommit(() -> todoCounters.toggled(toggled.isDone())));
+        return todo;
     }
 
+    @Transactional
     public void delete(Long id) {
-        todoRepository.deleteById(id);
+        Optional<TodoItem> todo = deltaTables ? todoRepository.deleteReturning(id) : todoRepository.findById(id);
+        todo.ifPresent(deleted -> {
+            if (!deltaTables) {
+                todoRepository.delete(deleted);
+            }
+            afterCommit(() -> todoCounters.removed(deleted.isDone()));
+        });
+    }
+
+    // The repository's returning queries use H2's data change delta tables, FINAL TABLE and OLD TABLE
+    private static boolean isH2(DataSource dataSource) {
+        try {
+            return "H2".equals(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+                contentVersion.changed();
+            }
+        });
     }
 }
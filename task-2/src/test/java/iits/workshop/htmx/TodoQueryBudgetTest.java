@@ -0,0 +1,36 @@
+package iits.workshop.htmx;
+
+import iits.workshop.instrumentation.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TodoQueryBudgetTest extends QueryBudgetTestSupport {
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Test
+    void createTodoFragmentStaysWithinBudget() throws Exception {
+        performWithinBudget(post("/todos").header("HX-Request", "true").param("text", "Write tests"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void toggleTodoFragmentStaysWithinBudget() throws Exception {
+        Long id = todoRepository.save(new TodoItem("Toggle me")).getId();
+
+        performWithinBudget(post("/todos/{id}/toggle", id).header("HX-Request", "true"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteTodoFragmentStaysWithinBudget() throws Exception {
+        Long id = todoRepository.save(new TodoItem("Delete me")).getId();
+
+        performWithinBudget(post("/todos/{id}/delete", id).header("HX-Request", "true"))
+                .andExpect(status().isOk());
+    }
+}
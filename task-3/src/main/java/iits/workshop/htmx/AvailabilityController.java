@@ -0,0 +1,62 @@
+package iits.workshop.htmx;
+
+import iits.workshop.instrumentation.QueryBudget;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Keystroke availability checks for the registration form. Answers come from the entity's
+ * validation constraints and {@link UserAvailabilityIndex} only, never from the database.
+ */
+@Controller
+@RequiredArgsConstructor
+public class AvailabilityController {
+
+    private final UserAvailabilityIndex userAvailabilityIndex;
+    private final Validator validator;
+
+    @GetMapping("/register/availability/username")
+    @QueryBudget(statements = 0)
+    public String username(@RequestParam(defaultValue = "") String username, Model model) {
+        return check(model, "username", username, userAvailabilityIndex::isUsernameTaken,
+                "Username is available", "Username is already taken");
+    }
+
+    @GetMapping("/register/availability/email")
+    @QueryBudget(statements = 0)
+    public String email(@RequestParam(defaultValue = "") String email, Model model) {
+        return check(model, "email", email, userAvailabilityIndex::isEmailTaken,
+                "Email is available", "Email is already registered");
+    }
+
+    private String check(Model model, String field, String value, Predicate<String> taken,
+                         String availableMessage, String takenMessage) {
+        model.addAttribute("field", field);
+        if (value.isBlank()) {
+            model.addAttribute("status", "empty");
+            model.addAttribute("message", "");
+            return "fragments/availability :: result";
+        }
+
+        Set<ConstraintViolation<User>> violations = validator.validateValue(User.class, field, value);
+        if (!violations.isEmpty()) {
+            model.addAttribute("status", "invalid");
+            model.addAttribute("message", violations.iterator().next().getMessage());
+        } else if (taken.test(value)) {
+            model.addAttribute("status", "taken");
+            model.addAttribute("message", takenMessage);
+        } else {
+            model.addAttribute("status", "available");
+            model.addAttribute("message", availableMessage);
+        }
+        return "fragments/availability :: result";
+    }
+}
@@ -0,0 +1,52 @@
+package iits.workshop.htmx;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filters over the usernames and emails already registered. A "definitely free" answer lets
+ * registration go straight to the insert; only a possible hit costs a lookup. Values are
+ * normalized like the unique keys, so the filters err towards "maybe taken", never the other
+ * way. Deleted users stay in the filters until restart, which only costs the occasional extra
+ * lookup.
+ */
+@Component
+public class RegisteredUserFilter {
+
+    private final UserRepository userRepository;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private volatile boolean loaded;
+
+    public RegisteredUserFilter(UserRepository userRepository,
+                                @Value("${workshop.registration.expected-users:100000}") int expectedUsers,
+                                @Value("${workshop.registration.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (UserIdentity identity : userRepository.findAllIdentities()) {
+            add(identity.username(), identity.email());
+        }
+        loaded = true;
+    }
+
+    public void add(String username, String email) {
+        usernames.put(User.normalize(username));
+        emails.put(User.normalize(email));
+    }
+
+    /**
+     * {@code false} means neither value is registered; {@code true} means one of them may be.
+     */
+    public boolean mightBeTaken(String username, String email) {
+        return !loaded
+                || usernames.mightContain(User.normalize(username))
+                || emails.mightContain(User.normalize(email));
+    }
+}
@@ -5,15 +5,25 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Locale;
+
 @Entity
-@Table(name = "users")
+@EntityListeners(UserIndexListener.class)
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username_key"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email_key")
+})
 @Getter
 @Setter
 public class User {
 
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -21,12 +31,12 @@ public class User {
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
     @Pattern(regexp = "^[a-zA-Z0-9_]+$", message = "Username can only contain letters, numbers, and underscores")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
     @NotBlank(message = "Email is required")
     @Email(message = "Please provide a valid email address")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @NotBlank(message = "Password is required")
@@ -35,4 +45,28 @@ public class User {
              message = "Password must contain at least one uppercase letter, one lowercase letter, and one number")
     @Column(nullable = false)
     private String password;
+
+    // Normalized copies that carry the unique constraints, so "Alice" and "alice" cannot both register
+    @Column(name = "username_key", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private String usernameKey;
+
+    @Column(name = "email_key", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private String emailKey;
+
+    @PrePersist
+    @PreUpdate
+    void updateKeys() {
+        usernameKey = normalize(username);
+        emailKey = normalize(email);
+    }
+
+    /**
+     * Trims and lower-cases a username or email; uniqueness, lookups and availability checks all
+     * compare values in this form.
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
 }
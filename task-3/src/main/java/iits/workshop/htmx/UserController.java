@@ -1,5 +1,6 @@
 package iits.workshop.htmx;
 
+import iits.workshop.instrumentation.QueryBudget;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
@@ -28,6 +29,7 @@ public class UserController {
     }
 
     @PostMapping("/register")
+    @QueryBudget(statements = 2)
     public String registerUser(@Valid @ModelAttribute("user") User user,
                               BindingResult bindingResult,
                               Model model,
@@ -38,23 +40,14 @@ public class UserController {
             return "register";
         }
 
-        // Custom validation: check if username already exists
-        if (userService.existsByUsername(user.getUsername())) {
-            bindingResult.rejectValue("username", "error.user",
-                    "Username is already taken");
+        // Username and email uniqueness is enforced by the insert itself
+        try {
+            userService.register(user);
+        } catch (UserAlreadyExistsException e) {
+            bindingResult.rejectValue(e.getField(), "error.user", e.getMessage());
             return "register";
         }
 
-        // Custom validation: check if email already exists
-        if (userService.existsByEmail(user.getEmail())) {
-            bindingResult.rejectValue("email", "error.user",
-                    "Email is already registered");
-            return "register";
-        }
-
-        // Save the user
-        userService.createUser(user);
-
         redirectAttributes.addFlashAttribute("successMessage",
                 "Registration successful! Welcome, " + user.getUsername() + "!");
 
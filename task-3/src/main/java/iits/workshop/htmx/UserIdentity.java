@@ -0,0 +1,4 @@
+package iits.workshop.htmx;
+
+public record UserIdentity(String username, String email) {
+}
@@ -0,0 +1,47 @@
+package iits.workshop.htmx;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hibernate creates entity listeners while the EntityManagerFactory is still being built, before
+ * the repository behind {@link UserAvailabilityIndex} exists, so the index is looked up on first use.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserIndexListener {
+
+    private final ObjectProvider<UserAvailabilityIndex> userAvailabilityIndex;
+
+    @PostPersist
+    public void onPersist(User user) {
+        String username = user.getUsername();
+        String email = user.getEmail();
+        afterCommit(() -> userAvailabilityIndex.getObject().add(username, email));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        String username = user.getUsername();
+        String email = user.getEmail();
+        afterCommit(() -> userAvailabilityIndex.getObject().remove(username, email));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,18 +1,29 @@
 package iits.workshop.htmx;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    Optional<User> findByUsername(String username);
+    Optional<User> findByUsernameKey(String usernameKey);
 
-    Optional<User> findByEmail(String email);
+    Optional<User> findByEmailKey(String emailKey);
 
-    boolean existsByUsername(String username);
+    boolean existsByUsernameKey(String usernameKey);
 
-    boolean existsByEmail(String email);
+    boolean existsByEmailKey(String emailKey);
+
+    /**
+     * Both uniqueness checks in one round trip on the normalized keys; each returned row tells which
+     * value collided.
+     */
+    List<UserIdentity> findByUsernameKeyOrEmailKey(String usernameKey, String emailKey);
+
+    @Query("SELECT new iits.workshop.htmx.UserIdentity(u.username, u.email) FROM User u")
+    List<UserIdentity> findAllIdentities();
 }
@@ -1,10 +1,12 @@
 package iits.workshop.htmx;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
@@ -12,10 +14,31 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final RegisteredUserFilter registeredUserFilter;
 
-    @Transactional
-    public User createUser(User user) {
-        return userRepository.save(user);
+    /**
+     * Inserts the user in a single round trip when the Bloom filter rules out a collision, and
+     * checks username and email together in one query when it cannot. The unique constraints
+     * stay the arbiter, so concurrent registrations of the same name cannot both succeed.
+     */
+    public User register(User user) {
+        if (registeredUserFilter.mightBeTaken(user.getUsername(), user.getEmail())) {
+            String usernameKey = User.normalize(user.getUsername());
+            List<UserIdentity> taken = userRepository.findByUsernameKeyOrEmailKey(usernameKey, User.normalize(user.getEmail()));
+            if (taken.stream().anyMatch(identity -> User.normalize(identity.username()).equals(usernameKey))) {
+                throw UserAlreadyExistsException.username();
+            }
+            if (!taken.isEmpty()) {
+                throw UserAlreadyExistsException.email();
+            }
+        }
+        try {
+            User saved = userRepository.save(user);
+            registeredUserFilter.add(saved.getUsername(), saved.getEmail());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
+        }
     }
 
     public Optional<User> findById(Long id) {
@@ -23,11 +46,11 @@ public class UserService {
     }
 
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userRepository.findByUsernameKey(User.normalize(username));
     }
 
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userRepository.findByEmailKey(User.normalize(email));
     }
 
     public List<User> findAll() {
@@ -36,7 +59,9 @@ public class UserService {
 
     @Transactional
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        registeredUserFilter.add(saved.getUsername(), saved.getEmail());
+        return saved;
     }
 
     @Transactional
@@ -45,10 +70,21 @@ public class UserService {
     }
 
     public boolean existsByUsername(String username) {
-        return userRepository.existsByUsername(username);
+        return userRepository.existsByUsernameKey(User.normalize(username));
     }
 
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return userRepository.existsByEmailKey(User.normalize(email));
+    }
+
+    private static RuntimeException translate(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains(User.USERNAME_CONSTRAINT)) {
+            return UserAlreadyExistsException.username();
+        }
+        if (message.contains(User.EMAIL_CONSTRAINT)) {
+            return UserAlreadyExistsException.email();
+        }
+        return e;
     }
 }
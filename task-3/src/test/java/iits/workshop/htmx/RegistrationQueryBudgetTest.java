@@ -0,0 +1,47 @@
+package iits.workshop.htmx;
+
+import iits.workshop.instrumentation.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RegistrationQueryBudgetTest extends QueryBudgetTestSupport {
+
+    @Test
+    void registrationStaysWithinBudget() throws Exception {
+        performWithinBudget(post("/register")
+                        .param("username", "budget_new")
+                        .param("email", "budget.new@example.com")
+                        .param("password", "Secret123"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void duplicateRegistrationStaysWithinBudget() throws Exception {
+        mockMvc.perform(post("/register")
+                        .param("username", "budget_dup")
+                        .param("email", "budget.dup@example.com")
+                        .param("password", "Secret123"))
+                .andExpect(status().is3xxRedirection());
+
+        performWithinBudget(post("/register")
+                        .param("username", "budget_dup")
+                        .param("email", "budget.other@example.com")
+                        .param("password", "Secret123"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void usernameAvailabilityRunsNoStatements() throws Exception {
+        performWithinBudget(get("/register/availability/username").param("username", "someone"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void emailAvailabilityRunsNoStatements() throws Exception {
+        performWithinBudget(get("/register/availability/email").param("email", "someone@example.com"))
+                .andExpect(status().isOk());
+    }
+}
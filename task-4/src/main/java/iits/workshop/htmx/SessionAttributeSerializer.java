@@ -0,0 +1,137 @@
+package iits.workshop.htmx;
+
+import iits.workshop.htmx.model.OrderDraft;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodes session attributes for the JDBC session tables. Order drafts are written as a tagged,
+ * length-prefixed binary record; any other attribute falls back to Java serialization.
+ */
+public class SessionAttributeSerializer {
+
+    private static final byte JAVA_SERIALIZED = 0;
+    private static final byte ORDER_DRAFT_V1 = 1;
+
+    private final SerializingConverter javaSerializer = new SerializingConverter();
+    private final DeserializingConverter javaDeserializer;
+
+    public SessionAttributeSerializer(ClassLoader classLoader) {
+        this.javaDeserializer = new DeserializingConverter(classLoader);
+    }
+
+    public byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (value instanceof OrderDraft draft) {
+                out.writeByte(ORDER_DRAFT_V1);
+                writeOrderDraft(out, draft);
+            } else {
+                out.writeByte(JAVA_SERIALIZED);
+                out.write(javaSerializer.convert(value));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public Object deserialize(byte[] bytes) {
+        return switch (bytes[0]) {
+            case ORDER_DRAFT_V1 -> readOrderDraft(bytes);
+            case JAVA_SERIALIZED -> javaDeserializer.convert(Arrays.copyOfRange(bytes, 1, bytes.length));
+            default -> throw new IllegalArgumentException("Unknown session attribute format " + bytes[0]);
+        };
+    }
+
+    private static void writeOrderDraft(DataOutputStream out, OrderDraft draft) throws IOException {
+        writeString(out, draft.productCategory());
+        writeLong(out, draft.makeId());
+        writeString(out, draft.makeName());
+        writeLong(out, draft.modelId());
+        writeString(out, draft.modelName());
+        writeInteger(out, draft.quantity());
+        writeString(out, draft.color());
+        writeString(out, draft.interior());
+        writeString(out, draft.tireType());
+        writeString(out, draft.deliveryAddress());
+        writeString(out, draft.contactName());
+        writeString(out, draft.contactEmail());
+        writeString(out, draft.contactPhone());
+        writeString(out, draft.paymentMethod());
+        writeString(out, draft.billingAddress());
+    }
+
+    private static OrderDraft readOrderDraft(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            return new OrderDraft(
+                    readString(in),
+                    readLong(in),
+                    readString(in),
+                    readLong(in),
+                    readString(in),
+                    readInteger(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in)
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+}
@@ -1,11 +1,40 @@
 package iits.workshop.htmx;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.session.SaveMode;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
 
 @Configuration
-@EnableJdbcHttpSession
+@EnableScheduling
+@EnableSpringHttpSession
 public class SessionConfig {
-    // Session configuration is now handled via application.yaml
-    // This class simply enables JDBC-backed HTTP sessions
+
+    @Bean
+    public WriteBehindSessionRepository sessionRepository(JdbcTemplate jdbcTemplate,
+                                                          PlatformTransactionManager transactionManager,
+                                                          @Value("${spring.session.timeout:30m}") Duration timeout,
+                                                          @Value("${workshop.session.max-sessions:10000}") int maxSessions) {
+        SessionAttributeSerializer serializer = new SessionAttributeSerializer(getClass().getClassLoader());
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, serializer::serialize);
+        conversionService.addConverter(byte[].class, Object.class, serializer::deserialize);
+
+        return new WriteBehindSessionRepository(
+                jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                conversionService,
+                timeout,
+                SaveMode.ON_SET_ATTRIBUTE,
+                maxSessions
+        );
+    }
 }
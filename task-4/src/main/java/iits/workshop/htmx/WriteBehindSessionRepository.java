@@ -0,0 +1,448 @@
+package iits.workshop.htmx;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.MapSession;
+import org.springframework.session.SaveMode;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps HTTP sessions in a bounded in-memory map and writes them to the Spring Session JDBC tables
+ * in the background. A request only touches memory; the writer later upserts the session row and
+ * just the attributes that were set (or read, depending on the {@link SaveMode}) since the last flush.
+ * Sessions that are not in memory, for example after a restart or eviction, are loaded from JDBC.
+ * Saving merges only what the request changed into the stored session, so overlapping requests in
+ * one session keep each other's attributes. Values are copied when they are saved, so a request
+ * that keeps mutating an attribute object afterwards does not change what is stored or written.
+ */
+public class WriteBehindSessionRepository implements SessionRepository<WriteBehindSessionRepository.TrackedSession> {
+
+    private static final TypeDescriptor OBJECT_TYPE = TypeDescriptor.valueOf(Object.class);
+    private static final TypeDescriptor BYTES_TYPE = TypeDescriptor.valueOf(byte[].class);
+
+    private static final String UPSERT_SESSION = """
+            MERGE INTO SPRING_SESSION (PRIMARY_ID, SESSION_ID, CREATION_TIME, LAST_ACCESS_TIME,
+                                       MAX_INACTIVE_INTERVAL, EXPIRY_TIME, PRINCIPAL_NAME)
+            KEY (PRIMARY_ID) VALUES (?, ?, ?, ?, ?, ?, NULL)""";
+    private static final String UPSERT_ATTRIBUTE = """
+            MERGE INTO SPRING_SESSION_ATTRIBUTES (SESSION_PRIMARY_ID, ATTRIBUTE_NAME, ATTRIBUTE_BYTES)
+            KEY (SESSION_PRIMARY_ID, ATTRIBUTE_NAME) VALUES (?, ?, ?)""";
+    private static final String DELETE_ATTRIBUTE =
+            "DELETE FROM SPRING_SESSION_ATTRIBUTES WHERE SESSION_PRIMARY_ID = ? AND ATTRIBUTE_NAME = ?";
+    private static final String DELETE_SESSION =
+            "DELETE FROM SPRING_SESSION WHERE PRIMARY_ID = ?";
+    private static final String DELETE_SESSION_BY_ID =
+            "DELETE FROM SPRING_SESSION WHERE SESSION_ID = ?";
+    private static final String DELETE_EXPIRED_SESSIONS =
+            "DELETE FROM SPRING_SESSION WHERE EXPIRY_TIME < ?";
+    private static final String SELECT_SESSION = """
+            SELECT S.PRIMARY_ID, S.SESSION_ID, S.CREATION_TIME, S.LAST_ACCESS_TIME, S.MAX_INACTIVE_INTERVAL,
+                   SA.ATTRIBUTE_NAME, SA.ATTRIBUTE_BYTES
+            FROM SPRING_SESSION S
+            LEFT JOIN SPRING_SESSION_ATTRIBUTES SA ON S.PRIMARY_ID = SA.SESSION_PRIMARY_ID
+            WHERE S.SESSION_ID = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversionService conversionService;
+    private final Duration defaultMaxInactiveInterval;
+    private final SaveMode saveMode;
+    private final Map<String, StoredSession> sessions;
+    private final Map<String, StoredSession> pendingWrites = new LinkedHashMap<>();
+    private final Set<String> writing = new HashSet<>();
+    private final Set<String> deletedWhileWriting = new HashSet<>();
+
+    public WriteBehindSessionRepository(JdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        ConversionService conversionService,
+                                        Duration defaultMaxInactiveInterval,
+                                        SaveMode saveMode,
+                                        int maxSessions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.conversionService = conversionService;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.saveMode = saveMode;
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredSession> eldest) {
+                return size() > maxSessions && !isQueued(eldest.getValue().primaryId);
+            }
+        };
+    }
+
+    @Override
+    public TrackedSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        TrackedSession tracked = new TrackedSession(UUID.randomUUID().toString(), session, saveMode);
+        tracked.isNew = true;
+        return tracked;
+    }
+
+    @Override
+    public void save(TrackedSession session) {
+        Set<String> changedNames = new HashSet<>(session.changedAttributes);
+        if (session.isNew) {
+            changedNames.addAll(session.getAttributeNames());
+        }
+        Map<String, Object> changes = new HashMap<>();
+        for (String name : changedNames) {
+            Object value = session.delegate.getAttribute(name);
+            changes.put(name, value != null ? copy(value) : null);
+        }
+
+        synchronized (this) {
+            StoredSession stored = storedSession(session);
+            MapSession target = stored.session;
+            if (!session.originalId.equals(session.getId())) {
+                sessions.remove(session.originalId);
+                target.setId(session.getId());
+            }
+            if (session.getLastAccessedTime().isAfter(target.getLastAccessedTime())) {
+                target.setLastAccessedTime(session.getLastAccessedTime());
+            }
+            target.setMaxInactiveInterval(session.getMaxInactiveInterval());
+            changes.forEach(target::setAttribute);
+            stored.dirtyAttributes.addAll(changes.keySet());
+            sessions.put(target.getId(), stored);
+            pendingWrites.put(stored.primaryId, stored);
+        }
+        session.originalId = session.getId();
+        session.changedAttributes.clear();
+        session.isNew = false;
+    }
+
+    /**
+     * Hands out the stored attribute values themselves; {@link #save} replaces them with copies
+     * rather than changing them, so only the map around them needs to be the request's own.
+     */
+    @Override
+    public TrackedSession findById(String id) {
+        StoredSession stored;
+        synchronized (this) {
+            stored = sessions.get(id);
+        }
+        if (stored == null) {
+            StoredSession loaded = load(id);
+            if (loaded == null) {
+                return null;
+            }
+            synchronized (this) {
+                if (deletedWhileWriting.contains(loaded.primaryId)) {
+                    return null;
+                }
+                stored = sessions.putIfAbsent(id, loaded);
+                if (stored == null) {
+                    stored = loaded;
+                }
+            }
+        }
+
+        MapSession session;
+        synchronized (this) {
+            session = new MapSession(stored.session);
+        }
+        if (session.isExpired()) {
+            deleteById(id);
+            return null;
+        }
+        return new TrackedSession(stored.primaryId, session, saveMode);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        StoredSession stored;
+        synchronized (this) {
+            stored = sessions.remove(id);
+            if (stored != null) {
+                pendingWrites.remove(stored.primaryId);
+                if (writing.contains(stored.primaryId)) {
+                    deletedWhileWriting.add(stored.primaryId);
+                }
+            }
+        }
+        if (stored != null) {
+            jdbcTemplate.update(DELETE_SESSION, stored.primaryId);
+        } else {
+            jdbcTemplate.update(DELETE_SESSION_BY_ID, id);
+        }
+    }
+
+    /**
+     * Writes every session saved since the last flush. Sessions whose write fails stay queued and
+     * are retried on the next run. A session deleted while its drained write is running may have
+     * been re-inserted by that write, so it is remembered and deleted again once the write is done.
+     */
+    @Scheduled(fixedDelayString = "${workshop.session.write-behind-interval:1s}")
+    public void flush() {
+        List<PendingWrite> writes = new ArrayList<>();
+        synchronized (this) {
+            for (StoredSession stored : pendingWrites.values()) {
+                writes.add(stored.drain());
+                writing.add(stored.primaryId);
+            }
+            pendingWrites.clear();
+        }
+
+        for (PendingWrite write : writes) {
+            String primaryId = write.stored.primaryId;
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(write));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    if (!deletedWhileWriting.contains(primaryId)) {
+                        write.stored.dirtyAttributes.addAll(write.attributes.keySet());
+                        pendingWrites.putIfAbsent(primaryId, write.stored);
+                    }
+                }
+            }
+            synchronized (this) {
+                writing.remove(primaryId);
+            }
+        }
+        deleteResurrectedSessions();
+    }
+
+    @Scheduled(cron = "${spring.session.jdbc.cleanup-cron:0 * * * * *}")
+    public void cleanUpExpiredSessions() {
+        synchronized (this) {
+            sessions.values().removeIf(stored -> stored.session.isExpired() && !isQueued(stored.primaryId));
+        }
+        jdbcTemplate.update(DELETE_EXPIRED_SESSIONS, Instant.now().toEpochMilli());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Deletes the rows of sessions that were deleted while being written. A delete that fails keeps
+     * its tombstone, which hides the row from {@link #findById} until the next flush retries it.
+     */
+    private void deleteResurrectedSessions() {
+        List<String> primaryIds;
+        synchronized (this) {
+            primaryIds = new ArrayList<>(deletedWhileWriting);
+            primaryIds.removeAll(writing);
+        }
+        for (String primaryId : primaryIds) {
+            try {
+                jdbcTemplate.update(DELETE_SESSION, primaryId);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            synchronized (this) {
+                deletedWhileWriting.remove(primaryId);
+            }
+        }
+    }
+
+    /**
+     * Returns the session that {@link #save} merges into: the one in memory, or, if it was evicted
+     * or never stored, a new one starting from the request's view of the session.
+     */
+    private StoredSession storedSession(TrackedSession session) {
+        StoredSession stored = pendingWrites.get(session.primaryId);
+        if (stored == null) {
+            stored = sessions.get(session.originalId);
+        }
+        if (stored == null || !stored.primaryId.equals(session.primaryId)) {
+            stored = new StoredSession(session.primaryId);
+            stored.session = new MapSession(session.delegate);
+        }
+        return stored;
+    }
+
+    private boolean isQueued(String primaryId) {
+        return pendingWrites.containsKey(primaryId) || writing.contains(primaryId);
+    }
+
+    /**
+     * Copies an attribute value by serializing it, as it would be for JDBC, so the stored value
+     * shares no mutable state with the object the request keeps.
+     */
+    private Object copy(Object value) {
+        return deserialize(serialize(value));
+    }
+
+    private void write(PendingWrite write) {
+        MapSession session = write.session;
+        Instant lastAccessed = session.getLastAccessedTime();
+        jdbcTemplate.update(UPSERT_SESSION,
+                write.stored.primaryId,
+                session.getId(),
+                session.getCreationTime().toEpochMilli(),
+                lastAccessed.toEpochMilli(),
+                (int) session.getMaxInactiveInterval().toSeconds(),
+                lastAccessed.plus(session.getMaxInactiveInterval()).toEpochMilli());
+
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        write.attributes.forEach((name, value) -> {
+            if (value == null) {
+                deletes.add(new Object[]{write.stored.primaryId, name});
+            } else {
+                upserts.add(new Object[]{write.stored.primaryId, name, serialize(value)});
+            }
+        });
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ATTRIBUTE, upserts);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ATTRIBUTE, deletes);
+        }
+    }
+
+    private StoredSession load(String id) {
+        return jdbcTemplate.query(SELECT_SESSION, rs -> {
+            StoredSession stored = null;
+            while (rs.next()) {
+                if (stored == null) {
+                    stored = new StoredSession(rs.getString("PRIMARY_ID"));
+                    MapSession session = new MapSession(rs.getString("SESSION_ID"));
+                    session.setCreationTime(Instant.ofEpochMilli(rs.getLong("CREATION_TIME")));
+                    session.setLastAccessedTime(Instant.ofEpochMilli(rs.getLong("LAST_ACCESS_TIME")));
+                    session.setMaxInactiveInterval(Duration.ofSeconds(rs.getInt("MAX_INACTIVE_INTERVAL")));
+                    stored.session = session;
+                }
+                String attributeName = rs.getString("ATTRIBUTE_NAME");
+                if (attributeName != null) {
+                    stored.session.setAttribute(attributeName, deserialize(rs.getBytes("ATTRIBUTE_BYTES")));
+                }
+            }
+            return stored;
+        }, id);
+    }
+
+    private byte[] serialize(Object value) {
+        return (byte[]) conversionService.convert(value, TypeDescriptor.forObject(value), BYTES_TYPE);
+    }
+
+    private Object deserialize(byte[] bytes) {
+        return conversionService.convert(bytes, BYTES_TYPE, OBJECT_TYPE);
+    }
+
+    private static final class StoredSession {
+
+        private final String primaryId;
+        private final Set<String> dirtyAttributes = new HashSet<>();
+        private MapSession session;
+
+        private StoredSession(String primaryId) {
+            this.primaryId = primaryId;
+        }
+
+        private PendingWrite drain() {
+            Map<String, Object> attributes = new HashMap<>();
+            for (String name : dirtyAttributes) {
+                attributes.put(name, session.getAttribute(name));
+            }
+            dirtyAttributes.clear();
+            return new PendingWrite(this, new MapSession(session), attributes);
+        }
+    }
+
+    private record PendingWrite(StoredSession stored, MapSession session, Map<String, Object> attributes) {
+    }
+
+    public static final class TrackedSession implements Session {
+
+        private final String primaryId;
+        private final MapSession delegate;
+        private final SaveMode saveMode;
+        private final Set<String> changedAttributes = new HashSet<>();
+        private String originalId;
+        private boolean isNew;
+
+        private TrackedSession(String primaryId, MapSession delegate, SaveMode saveMode) {
+            this.primaryId = primaryId;
+            this.delegate = delegate;
+            this.saveMode = saveMode;
+            this.originalId = delegate.getId();
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            T value = delegate.getAttribute(attributeName);
+            if (value != null && saveMode == SaveMode.ON_GET_ATTRIBUTE) {
+                changedAttributes.add(attributeName);
+            }
+            return value;
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            delegate.setAttribute(attributeName, attributeValue);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            delegate.removeAttribute(attributeName);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            delegate.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package iits.workshop.htmx.model;
+
+public record CatalogMake(Long id, String name) {
+
+    public Make toMake() {
+        Make make = new Make(name);
+        make.setId(id);
+        return make;
+    }
+}
@@ -0,0 +1,10 @@
+package iits.workshop.htmx.model;
+
+public record CatalogModel(Long id, String name, Long makeId) {
+
+    public CarModel toCarModel(Make make) {
+        CarModel model = new CarModel(name, make);
+        model.setId(id);
+        return model;
+    }
+}
@@ -1,28 +1,36 @@
 package iits.workshop.htmx.model;
 
+import iits.workshop.htmx.service.CatalogChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "make")
 public class Make implements Serializable {
     private static final long serialVersionUID = 1L;
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "make_seq")
+    @SequenceGenerator(name = "make_seq", sequenceName = "make_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Make name is required")
     private String name;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "make.models")
     @OneToMany(mappedBy = "make", cascade = CascadeType.ALL)
     private List<CarModel> models = new ArrayList<>();
 
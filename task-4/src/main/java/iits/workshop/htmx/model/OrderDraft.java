@@ -0,0 +1,63 @@
+package iits.workshop.htmx.model;
+
+/**
+ * Session-held state of an order that is still going through the wizard. Only ids and display
+ * names of the make and model are kept, never the entities themselves.
+ */
+public record OrderDraft(
+        String productCategory,
+        Long makeId,
+        String makeName,
+        Long modelId,
+        String modelName,
+        Integer quantity,
+        String color,
+        String interior,
+        String tireType,
+        String deliveryAddress,
+        String contactName,
+        String contactEmail,
+        String contactPhone,
+        String paymentMethod,
+        String billingAddress
+) {
+    public static OrderDraft fromOrder(Order order) {
+        return new OrderDraft(
+                order.getProductCategory(),
+                order.getMake() != null ? order.getMake().getId() : null,
+                order.getMake() != null ? order.getMake().getName() : null,
+                order.getModel() != null ? order.getModel().getId() : null,
+                order.getModel() != null ? order.getModel().getName() : null,
+                order.getQuantity(),
+                order.getColor(),
+                order.getInterior(),
+                order.getTireType(),
+                order.getDeliveryAddress(),
+                order.getContactName(),
+                order.getContactEmail(),
+                order.getContactPhone(),
+                order.getPaymentMethod(),
+                order.getBillingAddress()
+        );
+    }
+
+    public Order toOrder() {
+        Make make = null;
+        if (makeId != null) {
+            make = new Make(makeName);
+            make.setId(makeId);
+        }
+        CarModel model = null;
+        if (modelId != null) {
+            model = new CarModel(modelName, make);
+            model.setId(modelId);
+        }
+
+        Order order = new Order();
+        order.updateProductSelection(productCategory, make, model, quantity);
+        order.updateCustomization(color, interior, tireType);
+        order.updateDeliveryInformation(deliveryAddress, contactName, contactEmail, contactPhone);
+        order.updatePaymentInformation(paymentMethod, billingAddress);
+        return order;
+    }
+}
@@ -0,0 +1,121 @@
+package iits.workshop.htmx.service;
+
+import iits.workshop.htmx.model.CarModel;
+import iits.workshop.htmx.model.CarModelRepository;
+import iits.workshop.htmx.model.CatalogMake;
+import iits.workshop.htmx.model.CatalogModel;
+import iits.workshop.htmx.model.Make;
+import iits.workshop.htmx.model.MakeRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Immutable in-memory snapshot of all makes and models. The snapshot is built on first use and
+ * dropped whenever a make or model changes, so catalog reads only reach the database right after
+ * a change.
+ */
+@Service
+public class CarCatalog {
+
+    private final MakeRepository makeRepository;
+    private final CarModelRepository modelRepository;
+    private final AtomicLong generation = new AtomicLong(System.currentTimeMillis());
+    // Not a monitor: the load queries while holding it, which would pin a virtual thread's carrier
+    private final Lock loadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public CarCatalog(MakeRepository makeRepository, CarModelRepository modelRepository) {
+        this.makeRepository = makeRepository;
+        this.modelRepository = modelRepository;
+    }
+
+    public List<CatalogMake> getMakes() {
+        return snapshot().makes();
+    }
+
+    public List<CatalogModel> getModels(Long makeId) {
+        return snapshot().modelsByMake().getOrDefault(makeId, List.of());
+    }
+
+    public Optional<CatalogMake> findMake(Long makeId) {
+        return Optional.ofNullable(snapshot().makesById().get(makeId));
+    }
+
+    public Optional<CatalogModel> findModel(Long modelId) {
+        return Optional.ofNullable(snapshot().modelsById().get(modelId));
+    }
+
+    /**
+     * Changes whenever the catalog does, and never repeats across restarts, so it can serve as an ETag.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            current = snapshot;
+            if (current == null) {
+                long loadGeneration = generation.get();
+                current = load();
+                if (loadGeneration == generation.get()) {
+                    snapshot = current;
+                }
+            }
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        List<CatalogMake> makes = new ArrayList<>();
+        Map<Long, CatalogMake> makesById = new HashMap<>();
+        for (Make make : makeRepository.findAll()) {
+            CatalogMake entry = new CatalogMake(make.getId(), make.getName());
+            makes.add(entry);
+            makesById.put(entry.id(), entry);
+        }
+        makes.sort(Comparator.comparing(CatalogMake::id));
+
+        Map<Long, CatalogModel> modelsById = new HashMap<>();
+        Map<Long, List<CatalogModel>> modelsByMake = new HashMap<>();
+        for (CarModel model : modelRepository.findAll()) {
+            CatalogModel entry = new CatalogModel(model.getId(), model.getName(), model.getMake().getId());
+            modelsById.put(entry.id(), entry);
+            modelsByMake.computeIfAbsent(entry.makeId(), id -> new ArrayList<>()).add(entry);
+        }
+        modelsByMake.replaceAll((makeId, models) -> models.stream()
+                .sorted(Comparator.comparing(CatalogModel::id))
+                .toList());
+
+        return new Snapshot(List.copyOf(makes), Map.copyOf(makesById), Map.copyOf(modelsById), Map.copyOf(modelsByMake));
+    }
+
+    private record Snapshot(
+            List<CatalogMake> makes,
+            Map<Long, CatalogMake> makesById,
+            Map<Long, CatalogModel> modelsById,
+            Map<Long, List<CatalogModel>> modelsByMake
+    ) {
+    }
+}
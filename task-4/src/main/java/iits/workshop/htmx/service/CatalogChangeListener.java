@@ -0,0 +1,39 @@
+package iits.workshop.htmx.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hibernate creates entity listeners while the EntityManagerFactory is still being built, before
+ * the repositories behind {@link CarCatalog} exist, so the catalog is looked up on first use.
+ */
+@Component
+public class CatalogChangeListener {
+
+    private final ObjectProvider<CarCatalog> carCatalog;
+
+    public CatalogChangeListener(ObjectProvider<CarCatalog> carCatalog) {
+        this.carCatalog = carCatalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            carCatalog.getObject().invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                carCatalog.getObject().invalidate();
+            }
+        });
+    }
+}
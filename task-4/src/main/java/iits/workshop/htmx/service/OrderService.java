@@ -15,14 +15,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderService {
 
-    private final MakeRepository makeRepository;
-    private final CarModelRepository modelRepository;
+    private final CarCatalog carCatalog;
     private final OrderRepository orderRepository;
 
     public void updateProductSelection(Order order, ProductSelectionForm form) {
-        Make make = makeRepository.findById(form.makeId())
+        Make make = carCatalog.findMake(form.makeId())
+                .map(CatalogMake::toMake)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid make ID"));
-        CarModel model = modelRepository.findById(form.modelId())
+        CarModel model = carCatalog.findModel(form.modelId())
+                .filter(candidate -> candidate.makeId().equals(make.getId()))
+                .map(candidate -> candidate.toCarModel(make))
                 .orElseThrow(() -> new IllegalArgumentException("Invalid model ID"));
 
         order.updateProductSelection(form.productCategory(), make, model, form.quantity());
@@ -51,12 +53,16 @@ public class OrderService {
         return orderRepository.save(order);
     }
 
-    public List<Make> getAllMakes() {
-        return makeRepository.findAll();
+    public List<CatalogMake> getAllMakes() {
+        return carCatalog.getMakes();
     }
 
-    public List<CarModel> getModelsByMakeId(Long makeId) {
-        return modelRepository.findByMakeId(makeId);
+    public List<CatalogModel> getModelsByMakeId(Long makeId) {
+        return carCatalog.getModels(makeId);
+    }
+
+    public long getCatalogGeneration() {
+        return carCatalog.generation();
     }
 
     public Order getOrderById(Long orderId) {
@@ -1,6 +1,7 @@
 package iits.workshop.htmx.service;
 
 import iits.workshop.htmx.model.Order;
+import iits.workshop.htmx.model.OrderDraft;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Service;
 
@@ -21,11 +22,12 @@ public class SessionService {
     }
 
     public Order getOrder(HttpSession session) {
-        return (Order) session.getAttribute(ORDER_SESSION_KEY);
+        OrderDraft draft = (OrderDraft) session.getAttribute(ORDER_SESSION_KEY);
+        return draft != null ? draft.toOrder() : null;
     }
 
     public void setOrder(HttpSession session, Order order) {
-        session.setAttribute(ORDER_SESSION_KEY, order);
+        session.setAttribute(ORDER_SESSION_KEY, OrderDraft.fromOrder(order));
     }
 
     public void removeOrder(HttpSession session) {
@@ -1,6 +1,6 @@
 package iits.workshop.htmx.view;
 
-import iits.workshop.htmx.model.CarModel;
+import iits.workshop.htmx.model.CatalogModel;
 import iits.workshop.htmx.model.Order;
 import iits.workshop.htmx.service.OrderService;
 import iits.workshop.htmx.service.SessionService;
@@ -8,13 +8,17 @@ import iits.workshop.htmx.view.model.CustomizationForm;
 import iits.workshop.htmx.view.model.DeliveryInformationForm;
 import iits.workshop.htmx.view.model.PaymentInformationForm;
 import iits.workshop.htmx.view.model.ProductSelectionForm;
+import iits.workshop.instrumentation.QueryBudget;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -56,6 +60,7 @@ public class OrderController {
 
         Order order = sessionService.getOrder(session);
         orderService.updateProductSelection(order, productSelectionForm);
+        sessionService.setOrder(session, order);
 
         return "redirect:/order/step2";
     }
@@ -86,6 +91,7 @@ public class OrderController {
 
         Order order = sessionService.getOrder(session);
         orderService.updateCustomization(order, customizationForm);
+        sessionService.setOrder(session, order);
 
         return "redirect:/order/step3";
     }
@@ -116,6 +122,7 @@ public class OrderController {
 
         Order order = sessionService.getOrder(session);
         orderService.updateDeliveryInformation(order, deliveryInformationForm);
+        sessionService.setOrder(session, order);
 
         return "redirect:/order/step4";
     }
@@ -146,6 +153,7 @@ public class OrderController {
 
         Order order = sessionService.getOrder(session);
         orderService.updatePaymentInformation(order, paymentInformationForm);
+        sessionService.setOrder(session, order);
 
         return "redirect:/order/step5";
     }
@@ -172,6 +180,7 @@ public class OrderController {
     }
 
     @GetMapping("/success")
+    @QueryBudget(statements = 1)
     public String showSuccess(@RequestParam Long orderId, Model model) {
         Order order = orderService.getOrderById(orderId);
         model.addAttribute("order", order);
@@ -181,7 +190,15 @@ public class OrderController {
     // API endpoint to get models by make
     @GetMapping("/api/models")
     @ResponseBody
-    public List<CarModel> getModelsByMake(@RequestParam Long makeId) {
-        return orderService.getModelsByMakeId(makeId);
+    public ResponseEntity<List<CatalogModel>> getModelsByMake(@RequestParam Long makeId, WebRequest request) {
+        // Revalidated on every use, so a catalog change shows up on the next request
+        String eTag = "\"catalog-" + orderService.getCatalogGeneration() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(orderService.getModelsByMakeId(makeId));
     }
 }
@@ -0,0 +1,47 @@
+package iits.workshop.htmx;
+
+import iits.workshop.htmx.model.CarModel;
+import iits.workshop.htmx.model.CarModelRepository;
+import iits.workshop.htmx.model.Order;
+import iits.workshop.htmx.model.OrderRepository;
+import iits.workshop.instrumentation.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderQueryBudgetTest extends QueryBudgetTestSupport {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CarModelRepository carModelRepository;
+
+    @Test
+    void orderSummaryStaysWithinBudget() throws Exception {
+        Order order = orderRepository.save(order(carModelRepository.findAll().getFirst()));
+
+        performWithinBudget(get("/order/success").param("orderId", order.getId().toString()))
+                .andExpect(status().isOk());
+    }
+
+    private static Order order(CarModel model) {
+        Order order = new Order();
+        order.setProductCategory("Sedan");
+        order.setMake(model.getMake());
+        order.setModel(model);
+        order.setQuantity(1);
+        order.setColor("Black");
+        order.setInterior("Leather");
+        order.setTireType("All-season");
+        order.setDeliveryAddress("1 Main Street");
+        order.setContactName("Jane Doe");
+        order.setContactEmail("jane@example.com");
+        order.setContactPhone("555-0100");
+        order.setPaymentMethod("Credit card");
+        order.setBillingAddress("1 Main Street");
+        return order;
+    }
+}
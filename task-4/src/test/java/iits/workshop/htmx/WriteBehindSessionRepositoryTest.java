@@ -0,0 +1,93 @@
+package iits.workshop.htmx;
+
+import iits.workshop.htmx.WriteBehindSessionRepository.TrackedSession;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class WriteBehindSessionRepositoryTest {
+
+    @Autowired
+    private WriteBehindSessionRepository sessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void overlappingRequestsKeepEachOthersAttributes() throws Exception {
+        TrackedSession created = sessionRepository.createSession();
+        created.setAttribute("order", "draft");
+        sessionRepository.save(created);
+        String id = created.getId();
+
+        CyclicBarrier bothLoaded = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Void>> requests = executor.invokeAll(List.of(
+                    request(id, bothLoaded, "order", "step-2"),
+                    request(id, bothLoaded, "make", "Volvo")));
+            for (Future<Void> request : requests) {
+                request.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertAttributes(sessionRepository.findById(id));
+
+        sessionRepository.flush();
+        WriteBehindSessionRepository reloaded = new SessionConfig()
+                .sessionRepository(jdbcTemplate, transactionManager, Duration.ofMinutes(30), 10);
+        assertAttributes(reloaded.findById(id));
+    }
+
+    @Test
+    void savedValuesDoNotFollowLaterChanges() {
+        TrackedSession created = sessionRepository.createSession();
+        StringBuilder value = new StringBuilder("saved");
+        created.setAttribute("value", value);
+        sessionRepository.save(created);
+
+        value.append(" and changed");
+
+        StringBuilder stored = sessionRepository.findById(created.getId()).getAttribute("value");
+        assertThat(stored.toString()).isEqualTo("saved");
+    }
+
+    /**
+     * Both requests read the session before either saves, like an htmx request arriving while a
+     * wizard step is being posted.
+     */
+    private Callable<Void> request(String id, CyclicBarrier bothLoaded, String name, String value) {
+        return () -> {
+            TrackedSession session = sessionRepository.findById(id);
+            bothLoaded.await(5, TimeUnit.SECONDS);
+            session.setAttribute(name, value);
+            sessionRepository.save(session);
+            return null;
+        };
+    }
+
+    private static void assertAttributes(TrackedSession session) {
+        assertThat(session).isNotNull();
+        assertThat((String) session.getAttribute("order")).isEqualTo("step-2");
+        assertThat((String) session.getAttribute("make")).isEqualTo("Volvo");
+    }
+}
@@ -0,0 +1,138 @@
+package iits.workshop.htmx;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Backs the search-as-you-type endpoint. Identical queries that run at the same time share one
+ * load, recent term results are kept as id lists, and a session's older request stops waiting as
+ * soon as the same session sends a newer one. The load behind an abandoned request is not
+ * interrupted: other requests may share it, and its result still lands in the term cache.
+ */
+@Service
+public class LiveSearchService {
+
+    private static final int MAX_CACHED_TERMS = 1_000;
+    private static final int MAX_TRACKED_SESSIONS = 10_000;
+
+    private final ProductService productService;
+    private final ProductSearchIndex searchIndex;
+    private final TaskExecutor taskExecutor;
+    private final Map<String, CompletableFuture<List<Product>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CachedResult> recentResults = boundedLruMap(MAX_CACHED_TERMS);
+    private final Map<String, CompletableFuture<List<Product>>> sessionQueries = boundedLruMap(MAX_TRACKED_SESSIONS);
+
+    public LiveSearchService(ProductService productService,
+                             ProductSearchIndex searchIndex,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.productService = productService;
+        this.searchIndex = searchIndex;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Returns the matching products, or an empty result if a newer query from the same session
+     * superseded this one while it was waiting. Without a session id nothing is superseded; the
+     * client's {@code hx-sync} still drops its stale responses.
+     */
+    public Optional<List<Product>> search(String sessionId, String searchTerm) {
+        String term = normalize(searchTerm);
+        if (sessionId == null) {
+            return Optional.of(singleFlight(term).join());
+        }
+        CompletableFuture<List<Product>> query = singleFlight(term).thenApply(Function.identity());
+
+        CompletableFuture<List<Product>> previous;
+        synchronized (sessionQueries) {
+            previous = sessionQueries.put(sessionId, query);
+        }
+        if (previous != null) {
+            previous.cancel(false);
+        }
+
+        try {
+            return Optional.of(query.join());
+        } catch (CancellationException e) {
+            return Optional.empty();
+        } finally {
+            synchronized (sessionQueries) {
+                sessionQueries.remove(sessionId, query);
+            }
+        }
+    }
+
+    // The load is registered before it starts and cleaned up only after registration, so a load
+    // that completes immediately can never be left behind in the map
+    private CompletableFuture<List<Product>> singleFlight(String term) {
+        CompletableFuture<List<Product>> load = new CompletableFuture<>();
+        CompletableFuture<List<Product>> running = inFlight.putIfAbsent(term, load);
+        if (running != null) {
+            return running;
+        }
+        load.whenComplete((products, error) -> inFlight.remove(term, load));
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    load.complete(load(term));
+                } catch (RuntimeException e) {
+                    load.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+        }
+        return load;
+    }
+
+    private List<Product> load(String term) {
+        if (term.isEmpty()) {
+            return productService.getAllProducts();
+        }
+        return productService.findAllInOrder(resultIds(term));
+    }
+
+    private List<Long> resultIds(String term) {
+        long version = searchIndex.version();
+        synchronized (recentResults) {
+            CachedResult cached = recentResults.get(term);
+            if (cached != null && cached.version() == version) {
+                return cached.ids();
+            }
+        }
+
+        List<Long> ids = searchIndex.search(term).stream()
+                .limit(ProductService.MAX_RESULTS)
+                .toList();
+        synchronized (recentResults) {
+            recentResults.put(term, new CachedResult(version, ids));
+        }
+        return ids;
+    }
+
+    private static String normalize(String searchTerm) {
+        return searchTerm == null ? "" : searchTerm.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static <K, V> Map<K, V> boundedLruMap(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private record CachedResult(long version, List<Long> ids) {
+    }
+}
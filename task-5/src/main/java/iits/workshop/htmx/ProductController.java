@@ -1,34 +1,67 @@
 package iits.workshop.htmx;
 
+import iits.workshop.web.FragmentCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.View;
 
 import java.util.List;
+import java.util.Optional;
 
 @Controller
 public class ProductController {
 
+    static final String CACHE_REGION = "products";
+
     private final ProductService productService;
+    private final LiveSearchService liveSearchService;
+    private final FragmentCache fragmentCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, LiveSearchService liveSearchService,
+                             FragmentCache fragmentCache) {
         this.productService = productService;
+        this.liveSearchService = liveSearchService;
+        this.fragmentCache = fragmentCache;
     }
 
     @GetMapping("/")
-    public String index(@RequestParam(required = false) String search, Model model) {
-        List<Product> products;
-        
-        if (search != null && !search.trim().isEmpty()) {
-            products = productService.searchProducts(search);
-        } else {
-            products = productService.getAllProducts();
+    public View index(@RequestParam(required = false, defaultValue = "") String search, Model model) {
+        model.addAttribute("search", search);
+
+        return fragmentCache.view(CACHE_REGION, "index", search, attributes -> {
+            List<Product> products;
+
+            if (!search.trim().isEmpty()) {
+                products = productService.searchProducts(search);
+            } else {
+                products = productService.getAllProducts();
+            }
+
+            attributes.put("products", products);
+        });
+    }
+
+    @GetMapping("/products/search")
+    public String search(@RequestParam(required = false, defaultValue = "") String search,
+                         HttpServletRequest request,
+                         HttpServletResponse response,
+                         Model model) {
+        // Keystrokes must not create sessions: with JDBC sessions each one would write a row
+        HttpSession session = request.getSession(false);
+        Optional<List<Product>> products = liveSearchService.search(session != null ? session.getId() : null, search);
+        if (products.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return null;
         }
-        
-        model.addAttribute("products", products);
-        model.addAttribute("search", search != null ? search : "");
-        
-        return "index";
+
+        model.addAttribute("products", products.get());
+        model.addAttribute("search", search);
+
+        return "index :: results";
     }
 }
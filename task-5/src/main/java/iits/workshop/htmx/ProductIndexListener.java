@@ -0,0 +1,56 @@
+package iits.workshop.htmx;
+
+import iits.workshop.web.FragmentCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+@Component
+public class ProductIndexListener {
+
+    private final ProductSearchIndex searchIndex;
+    private final FragmentCache fragmentCache;
+
+    public ProductIndexListener(ProductSearchIndex searchIndex, FragmentCache fragmentCache) {
+        this.searchIndex = searchIndex;
+        this.fragmentCache = fragmentCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Product product) {
+        Long id = product.getId();
+        Map<String, Integer> terms = ProductSearchIndex.termsOf(product);
+        afterCommit(() -> {
+            searchIndex.index(id, terms);
+            fragmentCache.invalidate(ProductController.CACHE_REGION);
+        });
+    }
+
+    @PostRemove
+    public void onRemove(Product product) {
+        Long id = product.getId();
+        afterCommit(() -> {
+            searchIndex.remove(id);
+            fragmentCache.invalidate(ProductController.CACHE_REGION);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,18 +1,36 @@
 package iits.workshop.htmx;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
 public class ProductService {
 
+    /**
+     * Most products a search result shows. A one-letter prefix over a large catalog can match most
+     * of it, which would otherwise become an enormous IN list and page.
+     */
+    static final int MAX_RESULTS = 100;
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductSearchIndex searchIndex) {
         this.productRepository = productRepository;
+        this.searchIndex = searchIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        searchIndex.rebuild(productRepository.findAll());
     }
 
     public List<Product> getAllProducts() {
@@ -23,6 +41,21 @@ public class ProductService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllProducts();
         }
-        return productRepository.searchProducts(searchTerm.trim());
+        return findAllInOrder(searchIndex.search(searchTerm.trim()));
+    }
+
+    public List<Product> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> shown = ids.size() > MAX_RESULTS ? ids.subList(0, MAX_RESULTS) : ids;
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < shown.size(); i++) {
+            rank.put(shown.get(i), i);
+        }
+        List<Product> products = productRepository.findAllById(shown);
+        products.sort(Comparator.comparing(product -> rank.get(product.getId())));
+        return products;
     }
 }
@@ -1,5 +1,6 @@
 package iits.workshop.htmx;
 
+import iits.workshop.instrumentation.QueryBudget;
 import jakarta.validation.Valid;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -29,6 +30,7 @@ public class RegistrationController {
     }
 
     @PostMapping("/register")
+    @QueryBudget(statements = 2)
     public String registerUser(@Valid @ModelAttribute("user") User user, 
                               BindingResult bindingResult, 
                               Model model) {
@@ -36,7 +38,12 @@ public class RegistrationController {
             return "fragments/register-form :: registerForm";
         }
         
-        userService.registerUser(user);
+        try {
+            userService.registerUser(user);
+        } catch (UserAlreadyExistsException e) {
+            bindingResult.rejectValue(e.getField(), "error.user", e.getMessage());
+            return "fragments/register-form :: registerForm";
+        }
         model.addAttribute("success", true);
         return "fragments/register-form :: registerForm";
     }
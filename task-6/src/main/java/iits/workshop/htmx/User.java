@@ -5,22 +5,31 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.util.Locale;
+
 @Entity
-@Table(name = "users")
+@EntityListeners(UserIndexListener.class)
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username_key"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email_key")
+})
 public class User {
 
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String username;
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email must be valid")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @NotBlank(message = "Password is required")
@@ -28,6 +37,13 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    // Normalized copies that carry the unique constraints, so "Alice" and "alice" cannot both register
+    @Column(name = "username_key", nullable = false)
+    private String usernameKey;
+
+    @Column(name = "email_key", nullable = false)
+    private String emailKey;
+
     public User() {
     }
 
@@ -68,4 +84,27 @@ public class User {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    public String getUsernameKey() {
+        return usernameKey;
+    }
+
+    public String getEmailKey() {
+        return emailKey;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateKeys() {
+        usernameKey = normalize(username);
+        emailKey = normalize(email);
+    }
+
+    /**
+     * Trims and lower-cases a username or email; uniqueness, lookups and availability checks all
+     * compare values in this form.
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,26 @@
+package iits.workshop.htmx;
+
+/**
+ * Registration hit a username or email that is already taken; {@link #getField()} names which.
+ */
+public class UserAlreadyExistsException extends IllegalArgumentException {
+
+    private final String field;
+
+    public UserAlreadyExistsException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+
+    public static UserAlreadyExistsException username() {
+        return new UserAlreadyExistsException("username", "Username already exists");
+    }
+
+    public static UserAlreadyExistsException email() {
+        return new UserAlreadyExistsException("email", "Email already exists");
+    }
+
+    public String getField() {
+        return field;
+    }
+}
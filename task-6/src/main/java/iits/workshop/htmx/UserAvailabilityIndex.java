@@ -0,0 +1,72 @@
+package iits.workshop.htmx;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exact, in-memory view of the registered usernames and emails, so availability checks on every
+ * keystroke never reach the database. Values are kept normalized with {@link User#normalize}, the
+ * rule the unique keys enforce, so the form and the insert agree on what is taken. Reads are
+ * lock-free; writes are rare and serialized.
+ */
+@Component
+public class UserAvailabilityIndex {
+
+    private final UserRepository userRepository;
+    private final Set<String> usernames = new ConcurrentSkipListSet<>();
+    private final Set<String> emails = new ConcurrentSkipListSet<>();
+    // Not a monitor: load() queries while holding it, which would pin a virtual thread's carrier
+    private final Lock writeLock = new ReentrantLock();
+
+    public UserAvailabilityIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        writeLock.lock();
+        try {
+            usernames.clear();
+            emails.clear();
+            for (UserIdentity identity : userRepository.findAllIdentities()) {
+                add(identity.username(), identity.email());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void add(String username, String email) {
+        writeLock.lock();
+        try {
+            usernames.add(User.normalize(username));
+            emails.add(User.normalize(email));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(String username, String email) {
+        writeLock.lock();
+        try {
+            usernames.remove(User.normalize(username));
+            emails.remove(User.normalize(email));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return usernames.contains(User.normalize(username));
+    }
+
+    public boolean isEmailTaken(String email) {
+        return emails.contains(User.normalize(email));
+    }
+}
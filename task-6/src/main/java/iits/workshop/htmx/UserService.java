@@ -1,30 +1,62 @@
 package iits.workshop.htmx;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Locale;
+
 @Service
 @Transactional
 public class UserService {
 
     private final UserRepository userRepository;
+    private final RegisteredUserFilter registeredUserFilter;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, RegisteredUserFilter registeredUserFilter) {
         this.userRepository = userRepository;
+        this.registeredUserFilter = registeredUserFilter;
     }
 
+    /**
+     * Inserts the user in a single round trip when the Bloom filter rules out a collision, and
+     * checks username and email together in one query when it cannot. The unique constraints
+     * stay the arbiter, so concurrent registrations of the same name cannot both succeed.
+     */
     public User registerUser(User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new IllegalArgumentException("Username already exists");
+        if (registeredUserFilter.mightBeTaken(user.getUsername(), user.getEmail())) {
+            String usernameKey = User.normalize(user.getUsername());
+            List<UserIdentity> taken = userRepository.findByUsernameKeyOrEmailKey(usernameKey, User.normalize(user.getEmail()));
+            if (taken.stream().anyMatch(identity -> User.normalize(identity.username()).equals(usernameKey))) {
+                throw UserAlreadyExistsException.username();
+            }
+            if (!taken.isEmpty()) {
+                throw UserAlreadyExistsException.email();
+            }
         }
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new IllegalArgumentException("Email already exists");
+        try {
+            User saved = userRepository.save(user);
+            registeredUserFilter.add(saved.getUsername(), saved.getEmail());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
         }
-        return userRepository.save(user);
     }
 
     public User registerUserWithError(User user) {
         // This method intentionally throws a 500 error
         throw new RuntimeException("Unexpected error during registration");
     }
+
+    private static RuntimeException translate(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains(User.USERNAME_CONSTRAINT)) {
+            return UserAlreadyExistsException.username();
+        }
+        if (message.contains(User.EMAIL_CONSTRAINT)) {
+            return UserAlreadyExistsException.email();
+        }
+        return e;
+    }
 }
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(ItemChangeListener.class)
 @Table(name = "items")
 public class Item {
 
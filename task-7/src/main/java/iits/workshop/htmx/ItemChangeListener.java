@@ -0,0 +1,35 @@
+package iits.workshop.htmx;
+
+import iits.workshop.web.ContentVersion;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class ItemChangeListener {
+
+    private final ContentVersion contentVersion;
+
+    public ItemChangeListener(ContentVersion contentVersion) {
+        this.contentVersion = contentVersion;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Item item) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            contentVersion.changed();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                contentVersion.changed();
+            }
+        });
+    }
+}
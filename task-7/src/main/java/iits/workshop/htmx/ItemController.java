@@ -1,31 +1,50 @@
 package iits.workshop.htmx;
 
+import iits.workshop.web.ContentVersion;
+import iits.workshop.web.StreamingViewRenderer;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @Controller
 public class ItemController {
 
     private final ItemService itemService;
+    private final StreamingViewRenderer streamingViewRenderer;
+    private final ItemFeed itemFeed;
+    private final ContentVersion contentVersion;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, StreamingViewRenderer streamingViewRenderer, ItemFeed itemFeed,
+                          ContentVersion contentVersion) {
         this.itemService = itemService;
+        this.streamingViewRenderer = streamingViewRenderer;
+        this.itemFeed = itemFeed;
+        this.contentVersion = contentVersion;
     }
 
     @GetMapping("/")
-    public String index(Model model) {
-        List<Item> items = itemService.getAllItems();
-        model.addAttribute("items", items);
-        model.addAttribute("item", new Item());
-        return "index";
+    public void index(ServletWebRequest webRequest, HttpServletRequest request, HttpServletResponse response) {
+        if (contentVersion.checkNotModified(webRequest, "page")) {
+            return;
+        }
+        streamingViewRenderer.render("index", Map.of("item", new Item()), "items", itemService::streamAllItems, request, response);
+    }
+
+    @GetMapping(path = "/items/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter itemFeed() {
+        return itemFeed.subscribe();
     }
 
     @PostMapping("/items")
@@ -40,7 +59,7 @@ public class ItemController {
                 return "fragments/form :: item-form";
             }
             List<Item> items = itemService.getAllItems();
-            model.addAttribute("items", items);
+            model.addAttribute("items", items.iterator());
             return "index";
         }
 
@@ -0,0 +1,4 @@
+package iits.workshop.htmx;
+
+public record ItemCreatedEvent(Item item) {
+}
@@ -0,0 +1,135 @@
+package iits.workshop.htmx;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes newly created items to every open SSE connection as a rendered table row. Each row is
+ * rendered once per item, not once per subscriber. Publishing only offers the row to each
+ * subscriber's bounded buffer, dropping the oldest entry when it is full, so a slow client can
+ * neither block the publisher nor hold up the others. Every subscriber is drained by its own
+ * virtual thread, which also sends a keep-alive comment when idle so dead connections are noticed.
+ */
+@Component
+public class ItemFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemFeed.class);
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ITemplateEngine templateEngine;
+    private final int bufferSize;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ItemFeed(ITemplateEngine templateEngine,
+                    @Value("${workshop.feed.buffer-size:32}") int bufferSize) {
+        this.templateEngine = templateEngine;
+        this.bufferSize = bufferSize;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        subscriber.sender = senders.submit(() -> drain(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onItemCreated(ItemCreatedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String row = templateEngine.process("fragments/items", Set.of("item-row"),
+                new Context(Locale.ROOT, Map.of("item", event.item())));
+        for (Subscriber subscriber : subscribers) {
+            while (!subscriber.buffer.offer(row)) {
+                if (subscriber.buffer.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Rows discarded because a subscriber's buffer was full, since startup.
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (subscribers.contains(subscriber)) {
+                String row = subscriber.buffer.poll(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+                if (row != null) {
+                    subscriber.emitter.send(SseEmitter.event().name("item").data(row));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping item feed subscriber: {}", e.getMessage());
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        Future<?> sender = subscriber.sender;
+        if (sender != null) {
+            sender.cancel(true);
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<String> buffer;
+        private volatile Future<?> sender;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<String> buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -1,26 +1,36 @@
 package iits.workshop.htmx;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ItemService {
 
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ItemService(ItemRepository itemRepository) {
+    public ItemService(ItemRepository itemRepository, ApplicationEventPublisher eventPublisher) {
         this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Item> getAllItems() {
         return itemRepository.findAllByOrderByDateTimeAddedDesc();
     }
 
+    public Stream<Item> streamAllItems() {
+        return itemRepository.streamAllByOrderByDateTimeAddedDesc();
+    }
+
     public Item createItem(Item item) {
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemCreatedEvent(saved));
+        return saved;
     }
 
     public void deleteItem(Long id) {
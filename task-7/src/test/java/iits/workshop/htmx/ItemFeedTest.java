@@ -0,0 +1,97 @@
+package iits.workshop.htmx;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ItemFeedTest {
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemFeed itemFeed;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    /**
+     * The row spans several lines, and so does the description. SseEmitter sends each line as its
+     * own data field and EventSource joins them again, so the row must arrive exactly as rendered.
+     */
+    @Test
+    void pushesTheRowOfANewItemAsRendered() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/feed"))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        try (Stream<String> lines = response.body()) {
+            CompletableFuture<String> event = CompletableFuture.supplyAsync(() -> readItemEvent(lines.iterator()));
+            awaitSubscriber();
+
+            Item item = itemService.createItem(new Item("Feed test", "Pushed\nover SSE"));
+            String row = templateEngine.process("fragments/items", Set.of("item-row"),
+                    new Context(Locale.ROOT, Map.of("item", item)));
+
+            // This is what EventSource hands to htmx: every data line of the event, joined by newlines
+            String data = event.get(10, TimeUnit.SECONDS);
+            assertThat(row).contains("\n");
+            assertThat(data).isEqualTo(row.stripTrailing());
+        }
+    }
+
+    private void awaitSubscriber() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (itemFeed.subscriberCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(itemFeed.subscriberCount()).isPositive();
+    }
+
+    private static String readItemEvent(Iterator<String> lines) {
+        boolean itemEvent = false;
+        List<String> data = new ArrayList<>();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                if (itemEvent) {
+                    return String.join("\n", data);
+                }
+                data.clear();
+            } else if (line.startsWith("event:")) {
+                itemEvent = line.substring("event:".length()).strip().equals("item");
+            } else if (line.startsWith("data:")) {
+                String value = line.substring("data:".length());
+                data.add(value.startsWith(" ") ? value.substring(1) : value);
+            }
+        }
+        throw new IllegalStateException("Feed closed before an item event arrived");
+    }
+}
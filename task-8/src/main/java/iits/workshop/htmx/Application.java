@@ -1,9 +1,13 @@
 package iits.workshop.htmx;
 
+import iits.workshop.web.ContentVersion;
+import iits.workshop.web.FragmentCache;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import({ContentVersion.class, FragmentCache.class})
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
@@ -0,0 +1,47 @@
+package iits.workshop.htmx;
+
+import iits.workshop.web.ContentVersion;
+import iits.workshop.web.FragmentCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Users show their role and roles their permissions, so any change invalidates all dashboard
+ * fragments and their ETags.
+ */
+@Component
+public class DashboardChangeListener {
+
+    private final FragmentCache fragmentCache;
+    private final ContentVersion contentVersion;
+
+    public DashboardChangeListener(FragmentCache fragmentCache, ContentVersion contentVersion) {
+        this.fragmentCache = fragmentCache;
+        this.contentVersion = contentVersion;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changed();
+            }
+        });
+    }
+
+    private void changed() {
+        fragmentCache.invalidate(DashboardController.CACHE_REGION);
+        contentVersion.changed();
+    }
+}
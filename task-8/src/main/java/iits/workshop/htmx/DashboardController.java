@@ -1,18 +1,33 @@
 package iits.workshop.htmx;
 
+import iits.workshop.instrumentation.QueryBudget;
+import iits.workshop.web.ContentVersion;
+import iits.workshop.web.FragmentCache;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.View;
 
-import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 @Controller
 public class DashboardController {
 
+    static final String CACHE_REGION = "dashboard";
+
     private final DashboardService dashboardService;
+    private final FragmentCache fragmentCache;
+    private final ContentVersion contentVersion;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, FragmentCache fragmentCache,
+                               ContentVersion contentVersion) {
         this.dashboardService = dashboardService;
+        this.fragmentCache = fragmentCache;
+        this.contentVersion = contentVersion;
     }
 
     @GetMapping("/")
@@ -21,26 +36,84 @@ public class DashboardController {
     }
 
     @GetMapping("/dashboard/users")
-    public String showUsers(Model model) {
-        List<User> users = dashboardService.getAllUsers();
-        model.addAttribute("users", users);
+    @QueryBudget(statements = 2)
+    public View showUsers(@RequestParam Map<String, String> parameters, Model model, ServletWebRequest webRequest) {
+        boolean htmx = isHtmxRequest(webRequest);
+        if (contentVersion.checkNotModified(webRequest, htmx ? "fragment" : "page")) {
+            return null;
+        }
+        TableQuery query = TableQuery.from(parameters);
+        model.addAttribute("query", query);
         model.addAttribute("activeTab", "users");
-        return "dashboard";
+        return cached(htmx ? "fragments/tables :: usersTable" : "dashboard", parameters,
+                attributes -> attributes.put("chunk", dashboardService.getUsers(query)));
+    }
+
+    @GetMapping("/dashboard/users/rows")
+    @QueryBudget(statements = 2)
+    public View userRows(@RequestParam Map<String, String> parameters, Model model, ServletWebRequest webRequest) {
+        if (contentVersion.checkNotModified(webRequest, "rows")) {
+            return null;
+        }
+        TableQuery query = TableQuery.from(parameters);
+        model.addAttribute("query", query);
+        return cached("fragments/tables :: userRows", parameters,
+                attributes -> attributes.put("chunk", dashboardService.getUsers(query)));
     }
 
     @GetMapping("/dashboard/roles")
-    public String showRoles(Model model) {
-        List<Role> roles = dashboardService.getAllRoles();
-        model.addAttribute("roles", roles);
+    public View showRoles(@RequestParam Map<String, String> parameters, Model model, ServletWebRequest webRequest) {
+        boolean htmx = isHtmxRequest(webRequest);
+        if (contentVersion.checkNotModified(webRequest, htmx ? "fragment" : "page")) {
+            return null;
+        }
+        TableQuery query = TableQuery.from(parameters);
+        model.addAttribute("query", query);
         model.addAttribute("activeTab", "roles");
-        return "dashboard";
+        return cached(htmx ? "fragments/tables :: rolesTable" : "dashboard", parameters,
+                attributes -> attributes.put("chunk", dashboardService.getRoles(query)));
+    }
+
+    @GetMapping("/dashboard/roles/rows")
+    public View roleRows(@RequestParam Map<String, String> parameters, Model model, ServletWebRequest webRequest) {
+        if (contentVersion.checkNotModified(webRequest, "rows")) {
+            return null;
+        }
+        TableQuery query = TableQuery.from(parameters);
+        model.addAttribute("query", query);
+        return cached("fragments/tables :: roleRows", parameters,
+                attributes -> attributes.put("chunk", dashboardService.getRoles(query)));
     }
 
     @GetMapping("/dashboard/permissions")
-    public String showPermissions(Model model) {
-        List<Permission> permissions = dashboardService.getAllPermissions();
-        model.addAttribute("permissions", permissions);
+    public View showPermissions(@RequestParam Map<String, String> parameters, Model model, ServletWebRequest webRequest) {
+        boolean htmx = isHtmxRequest(webRequest);
+        if (contentVersion.checkNotModified(webRequest, htmx ? "fragment" : "page")) {
+            return null;
+        }
+        TableQuery query = TableQuery.from(parameters);
+        model.addAttribute("query", query);
         model.addAttribute("activeTab", "permissions");
-        return "dashboard";
+        return cached(htmx ? "fragments/tables :: permissionsTable" : "dashboard", parameters,
+                attributes -> attributes.put("chunk", dashboardService.getPermissions(query)));
+    }
+
+    @GetMapping("/dashboard/permissions/rows")
+    public View permissionRows(@RequestParam Map<String, String> parameters, Model model, ServletWebRequest webRequest) {
+        if (contentVersion.checkNotModified(webRequest, "rows")) {
+            return null;
+        }
+        TableQuery query = TableQuery.from(parameters);
+        model.addAttribute("query", query);
+        return cached("fragments/tables :: permissionRows", parameters,
+                attributes -> attributes.put("chunk", dashboardService.getPermissions(query)));
+    }
+
+    private View cached(String viewName, Map<String, String> parameters, Consumer<Map<String, Object>> loader) {
+        return fragmentCache.view(CACHE_REGION, viewName, new TreeMap<>(parameters).toString(), loader);
+    }
+
+    private static boolean isHtmxRequest(ServletWebRequest request) {
+        return "true".equals(request.getHeader("HX-Request"));
     }
 }
@@ -1,14 +1,29 @@
 package iits.workshop.htmx;
 
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 public class DashboardService {
 
+    private static final int CHUNK_SIZE = 50;
+    private static final Set<String> USER_SORT_COLUMNS = Set.of("id", "username", "email");
+    private static final Set<String> ROLE_SORT_COLUMNS = Set.of("id", "name");
+    private static final Set<String> PERMISSION_SORT_COLUMNS = Set.of("id", "name");
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
@@ -21,15 +36,116 @@ public class DashboardService {
         this.permissionRepository = permissionRepository;
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public TableChunk<UserRow> getUsers(TableQuery query) {
+        String sortBy = sortColumn(query, USER_SORT_COLUMNS);
+        Specification<User> specification = Specification.<User>unrestricted()
+                .and(contains("username", query.filter("username")))
+                .and(contains("email", query.filter("email")))
+                .and(roleNameContains(query.filter("role")));
+
+        Window<User> window = userRepository.findBy(specification, fluent -> fluent
+                .sortBy(sort(query, sortBy))
+                .limit(CHUNK_SIZE)
+                .project("role")
+                .scroll(ScrollCursor.decode(query.cursor(), sortBy)));
+
+        return chunk(window, sortBy, users -> users.stream()
+                .map(user -> new UserRow(
+                        user.getId(),
+                        user.getUsername(),
+                        user.getEmail(),
+                        user.getRole() != null ? user.getRole().getName() : null
+                ))
+                .toList());
+    }
+
+    public TableChunk<RoleRow> getRoles(TableQuery query) {
+        String sortBy = sortColumn(query, ROLE_SORT_COLUMNS);
+        Specification<Role> specification = Specification.<Role>unrestricted()
+                .and(contains("name", query.filter("name")))
+                .and(contains("description", query.filter("description")));
+
+        Window<Role> window = roleRepository.findBy(specification, fluent -> fluent
+                .sortBy(sort(query, sortBy))
+                .limit(CHUNK_SIZE)
+                .scroll(ScrollCursor.decode(query.cursor(), sortBy)));
+
+        return chunk(window, sortBy, roles -> {
+            if (roles.isEmpty()) {
+                return List.of();
+            }
+            // Permissions come from a second query keyed by the window's ids; fetching the collection
+            // together with the limit would make Hibernate paginate in memory
+            Map<Long, Role> withPermissions = roleRepository.findByIdIn(roles.stream().map(Role::getId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Role::getId, Function.identity()));
+            return roles.stream()
+                    .map(role -> withPermissions.get(role.getId()))
+                    .filter(Objects::nonNull)
+                    .map(DashboardService::toRow)
+                    .toList();
+        });
+    }
+
+    public TableChunk<PermissionRow> getPermissions(TableQuery query) {
+        String sortBy = sortColumn(query, PERMISSION_SORT_COLUMNS);
+        Specification<Permission> specification = Specification.<Permission>unrestricted()
+                .and(contains("name", query.filter("name")))
+                .and(contains("description", query.filter("description")));
+
+        Window<Permission> window = permissionRepository.findBy(specification, fluent -> fluent
+                .sortBy(sort(query, sortBy))
+                .limit(CHUNK_SIZE)
+                .scroll(ScrollCursor.decode(query.cursor(), sortBy)));
+
+        return chunk(window, sortBy, permissions -> permissions.stream()
+                .map(permission -> new PermissionRow(permission.getId(), permission.getName(), permission.getDescription()))
+                .toList());
+    }
+
+    private static <T, R> TableChunk<R> chunk(Window<T> window, String sortBy, Function<List<T>, List<R>> mapper) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = ScrollCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1), sortBy);
+        }
+        return new TableChunk<>(mapper.apply(window.getContent()), nextCursor);
+    }
+
+    private static RoleRow toRow(Role role) {
+        return new RoleRow(
+                role.getId(),
+                role.getName(),
+                role.getDescription(),
+                role.getPermissions().stream()
+                        .map(Permission::getName)
+                        .sorted()
+                        .toList()
+        );
+    }
+
+    private static String sortColumn(TableQuery query, Set<String> sortColumns) {
+        return sortColumns.contains(query.sortBy()) ? query.sortBy() : "id";
+    }
+
+    private static Sort sort(TableQuery query, String sortBy) {
+        Sort.Direction direction = query.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
     }
 
-    public List<Role> getAllRoles() {
-        return roleRepository.findAll();
+    private static <T> Specification<T> contains(String attribute, String value) {
+        if (value.isEmpty()) {
+            return Specification.unrestricted();
+        }
+        String pattern = "%" + value.toLowerCase(Locale.ROOT) + "%";
+        return (root, query, builder) -> builder.like(builder.lower(root.<String>get(attribute)), pattern);
     }
 
-    public List<Permission> getAllPermissions() {
-        return permissionRepository.findAll();
+    private static Specification<User> roleNameContains(String value) {
+        if (value.isEmpty()) {
+            return Specification.unrestricted();
+        }
+        String pattern = "%" + value.toLowerCase(Locale.ROOT) + "%";
+        return (root, query, builder) -> builder.like(builder.lower(root.join("role").<String>get("name")), pattern);
     }
 }
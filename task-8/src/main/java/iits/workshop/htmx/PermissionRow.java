@@ -0,0 +1,4 @@
+package iits.workshop.htmx;
+
+public record PermissionRow(Long id, String name, String description) {
+}
@@ -2,16 +2,22 @@ package iits.workshop.htmx;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(DashboardChangeListener.class)
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role")
 public class Role {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "roles_seq")
+    @SequenceGenerator(name = "roles_seq", sequenceName = "roles_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Role name is required")
@@ -21,6 +27,7 @@ public class Role {
     @Column(length = 500)
     private String description;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role.permissions")
     @ManyToMany
     @JoinTable(
         name = "role_permissions",
@@ -0,0 +1,6 @@
+package iits.workshop.htmx;
+
+import java.util.List;
+
+public record RoleRow(Long id, String name, String description, List<String> permissionNames) {
+}
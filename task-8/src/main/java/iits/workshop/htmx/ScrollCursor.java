@@ -0,0 +1,45 @@
+package iits.workshop.htmx;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque, URL-safe form of a keyset position: the id and sort column value of the last row a
+ * client has received, so the next chunk is read by seeking past it.
+ */
+public final class ScrollCursor {
+
+    private ScrollCursor() {
+    }
+
+    public static String encode(KeysetScrollPosition position, String sortBy) {
+        Map<String, ?> keys = position.getKeys();
+        String raw = keys.get("id") + ":" + ("id".equals(sortBy) ? "" : keys.get(sortBy));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition decode(String cursor, String sortBy) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 2);
+            if (parts.length != 2) {
+                return ScrollPosition.keyset();
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            if (!"id".equals(sortBy)) {
+                keys.put(sortBy, parts[1]);
+            }
+            keys.put("id", Long.valueOf(parts[0]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            return ScrollPosition.keyset();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package iits.workshop.htmx;
+
+import java.util.List;
+
+public record TableChunk<T>(List<T> rows, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,37 @@
+package iits.workshop.htmx;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public record TableQuery(String sortBy, String direction, String cursor, Map<String, String> filters) {
+
+    private static final Set<String> CONTROL_PARAMETERS = Set.of("sortBy", "direction", "cursor");
+
+    public static TableQuery from(Map<String, String> parameters) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        parameters.forEach((name, value) -> {
+            if (!CONTROL_PARAMETERS.contains(name) && value != null && !value.isBlank()) {
+                filters.put(name, value.trim());
+            }
+        });
+        return new TableQuery(
+                parameters.getOrDefault("sortBy", "id"),
+                "desc".equalsIgnoreCase(parameters.get("direction")) ? "desc" : "asc",
+                parameters.getOrDefault("cursor", ""),
+                filters
+        );
+    }
+
+    public boolean descending() {
+        return "desc".equals(direction);
+    }
+
+    public String filter(String column) {
+        return filters.getOrDefault(column, "");
+    }
+
+    public String toggledDirection(String column) {
+        return column.equals(sortBy) && !descending() ? "desc" : "asc";
+    }
+}
@@ -0,0 +1,4 @@
+package iits.workshop.htmx;
+
+public record UserRow(Long id, String username, String email, String roleName) {
+}
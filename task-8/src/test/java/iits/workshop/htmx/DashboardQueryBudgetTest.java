@@ -0,0 +1,33 @@
+package iits.workshop.htmx;
+
+import iits.workshop.instrumentation.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The fragment cache is off, so every request reaches the database.
+ */
+@TestPropertySource(properties = "workshop.fragment-cache.enabled=false")
+class DashboardQueryBudgetTest extends QueryBudgetTestSupport {
+
+    @Test
+    void usersPageStaysWithinBudget() throws Exception {
+        performWithinBudget(get("/dashboard/users"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void usersFragmentStaysWithinBudget() throws Exception {
+        performWithinBudget(get("/dashboard/users").header("HX-Request", "true").param("role", "admin"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void userRowsStayWithinBudget() throws Exception {
+        performWithinBudget(get("/dashboard/users/rows").header("HX-Request", "true").param("sortBy", "username"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,69 @@
+package iits.workshop.htmx;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of statements each dashboard tab needs. A full chunk must cost exactly as much as
+ * a single row, so the count cannot grow with the number of users, roles or permissions shown.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DashboardQueryCountTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void usersTabLoadsAChunkInOneStatement() {
+        long fullChunk = statementsFor(() -> dashboardService.getUsers(TableQuery.from(Map.of())));
+        long singleRow = statementsFor(() -> dashboardService.getUsers(TableQuery.from(Map.of("username", "testuser50"))));
+
+        assertThat(fullChunk).isEqualTo(1);
+        assertThat(singleRow).isEqualTo(fullChunk);
+    }
+
+    @Test
+    void rolesTabLoadsAChunkAndItsPermissionsInTwoStatements() {
+        long fullChunk = statementsFor(() -> dashboardService.getRoles(TableQuery.from(Map.of())));
+        long singleRow = statementsFor(() -> dashboardService.getRoles(TableQuery.from(Map.of("name", "viewer"))));
+
+        assertThat(fullChunk).isEqualTo(2);
+        assertThat(singleRow).isEqualTo(fullChunk);
+    }
+
+    @Test
+    void permissionsTabLoadsAChunkInOneStatement() {
+        long fullChunk = statementsFor(() -> dashboardService.getPermissions(TableQuery.from(Map.of())));
+        long singleRow = statementsFor(() -> dashboardService.getPermissions(TableQuery.from(Map.of("name", "execute"))));
+
+        assertThat(fullChunk).isEqualTo(1);
+        assertThat(singleRow).isEqualTo(fullChunk);
+    }
+
+    private long statementsFor(Supplier<TableChunk<?>> tab) {
+        statistics.clear();
+        TableChunk<?> chunk = tab.get();
+        assertThat(chunk.rows()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+}
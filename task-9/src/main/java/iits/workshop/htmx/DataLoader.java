@@ -1,29 +1,74 @@
 package iits.workshop.htmx;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+/**
+ * Seeds the product table through {@link ProductBulkWriter}, or from a CSV file read by H2 itself.
+ */
 @Component
-@RequiredArgsConstructor
 public class DataLoader implements CommandLineRunner {
     
+    private static final String IMPORT_CSV =
+        "INSERT INTO product (id, name, category, price, stock) " +
+        "SELECT NEXT VALUE FOR product_seq, name, category, CAST(price AS DOUBLE PRECISION), CAST(stock AS INTEGER) " +
+        "FROM CSVREAD(?)";
+    
     private final ProductRepository productRepository;
+    private final ProductBulkWriter bulkWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int productCount;
+    private final int batchSize;
+    private final String csvFile;
+    
+    public DataLoader(ProductRepository productRepository,
+                      ProductBulkWriter bulkWriter,
+                      JdbcTemplate jdbcTemplate,
+                      TransactionTemplate transactionTemplate,
+                      @Value("${workshop.seed.products:150}") int productCount,
+                      @Value("${workshop.seed.batch-size:1000}") int batchSize,
+                      @Value("${workshop.seed.csv:}") String csvFile) {
+        this.productRepository = productRepository;
+        this.bulkWriter = bulkWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productCount = productCount;
+        this.batchSize = batchSize;
+        this.csvFile = csvFile;
+    }
     
     @Override
     public void run(String... args) {
         if (productRepository.count() == 0) {
-            loadSampleData();
+            long start = System.nanoTime();
+            if (csvFile.isBlank()) {
+                loadSampleData();
+            } else {
+                importCsv();
+            }
+            System.out.println("Loaded " + productRepository.count() + " products in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
         }
     }
     
+    /**
+     * Bulk import of a CSV file with a NAME,CATEGORY,PRICE,STOCK header, done entirely inside H2.
+     */
+    private void importCsv() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(IMPORT_CSV, csvFile));
+    }
+    
     private void loadSampleData() {
         Random random = new Random();
-        List<Product> products = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>(batchSize);
         
         String[] categories = {"Electronics", "Clothing", "Food", "Books", "Toys", "Sports", "Home", "Garden", "Tools", "Beauty"};
         String[] adjectives = {"Premium", "Deluxe", "Classic", "Modern", "Vintage", "Professional", "Budget", "Luxury", "Standard", "Advanced"};
@@ -40,21 +85,24 @@ public class DataLoader implements CommandLineRunner {
             "Shampoo", "Soap", "Lotion", "Cream", "Perfume", "Lipstick", "Mascara", "Foundation", "Brush", "Mirror"
         };
         
-        for (int i = 0; i < 150; i++) {
+        for (int i = 0; i < productCount; i++) {
             String adjective = adjectives[random.nextInt(adjectives.length)];
             String item = items[random.nextInt(items.length)];
             String category = categories[random.nextInt(categories.length)];
             
-            Product product = new Product();
-            product.setName(adjective + " " + item + " " + (i + 1));
-            product.setCategory(category);
-            product.setPrice(Math.round((10 + random.nextDouble() * 990) * 100.0) / 100.0);
-            product.setStock(random.nextInt(500));
+            batch.add(new Object[]{
+                adjective + " " + item + " " + (i + 1),
+                category,
+                Math.round((10 + random.nextDouble() * 990) * 100.0) / 100.0,
+                random.nextInt(500)
+            });
             
-            products.add(product);
+            if (batch.size() == batchSize) {
+                bulkWriter.insert(batch);
+                batch.clear();
+            }
         }
         
-        productRepository.saveAll(products);
-        System.out.println("Loaded " + products.size() + " sample products");
+        bulkWriter.insert(batch);
     }
 }
@@ -0,0 +1,32 @@
+package iits.workshop.htmx;
+
+import java.util.List;
+
+public record ImportProgress(
+    String importId,
+    long bytesRead,
+    long totalBytes,
+    long imported,
+    long rejected,
+    List<String> errors,
+    boolean done,
+    String failure
+) {
+    public static ImportProgress waiting(String importId) {
+        return new ImportProgress(importId, 0, -1, 0, 0, List.of(), false, null);
+    }
+    
+    /**
+     * Percentage of the upload consumed so far, or {@code -1} when the size is unknown.
+     */
+    public int percent() {
+        if (done) {
+            return 100;
+        }
+        return totalBytes > 0 ? (int) Math.min(99, bytesRead * 100 / totalBytes) : -1;
+    }
+    
+    public boolean failed() {
+        return failure != null;
+    }
+}
@@ -0,0 +1,94 @@
+package iits.workshop.htmx;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Latest progress of recent imports and the SSE connections watching them. The upload and the
+ * event stream are separate requests that may arrive in either order, so whichever comes first
+ * registers the import, and late subscribers immediately get the current state. Nothing is locked
+ * while sending, so a slow client cannot hold up subscribers or updates of other imports, and a
+ * virtual thread blocked on a send does not pin its carrier.
+ */
+@Component
+public class ImportProgressRegistry {
+
+    private static final int MAX_IMPORTS = 100;
+
+    private final ITemplateEngine templateEngine;
+    private final Map<String, Tracked> imports = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Tracked> eldest) {
+            return size() > MAX_IMPORTS;
+        }
+    };
+
+    public ImportProgressRegistry(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    public SseEmitter subscribe(String importId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Tracked tracked = tracked(importId);
+        emitter.onCompletion(() -> tracked.emitters.remove(emitter));
+        emitter.onTimeout(() -> tracked.emitters.remove(emitter));
+        emitter.onError(error -> tracked.emitters.remove(emitter));
+        tracked.emitters.add(emitter);
+        // Read after registering: an update published in between reaches this emitter either way
+        send(emitter, tracked.latest);
+        return emitter;
+    }
+
+    public void publish(ImportProgress progress) {
+        Tracked tracked = tracked(progress.importId());
+        tracked.latest = progress;
+        // Iterates over a snapshot of the emitters
+        for (SseEmitter emitter : tracked.emitters) {
+            send(emitter, progress);
+        }
+    }
+
+    public ImportProgress latest(String importId) {
+        return tracked(importId).latest;
+    }
+
+    public String render(ImportProgress progress) {
+        return templateEngine.process("fragments/import", Set.of("progress"),
+            new Context(Locale.ROOT, Map.of("progress", progress)));
+    }
+
+    private synchronized Tracked tracked(String importId) {
+        return imports.computeIfAbsent(importId, id -> new Tracked(ImportProgress.waiting(id)));
+    }
+
+    private void send(SseEmitter emitter, ImportProgress progress) {
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(render(progress)));
+            if (progress.done()) {
+                emitter.send(SseEmitter.event().name("done").data(""));
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static final class Tracked {
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile ImportProgress latest;
+
+        private Tracked(ImportProgress latest) {
+            this.latest = latest;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package iits.workshop.htmx;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Inserts products as one JDBC batch per call, each in its own transaction. Ids come from the same
+ * pooled sequence Hibernate uses, so rows inserted here and through JPA never collide. Hibernate
+ * does not see these inserts, so cached query results are dropped after every batch.
+ */
+@Component
+public class ProductBulkWriter {
+
+    private static final String INSERT_PRODUCT =
+        "INSERT INTO product (id, name, category, price, stock) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ProductBulkWriter(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Each row holds name, category, price and stock, in that order.
+     */
+    public void insert(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows);
+            eventPublisher.publishEvent(new ProductChangedEvent(null));
+        });
+        entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegions();
+    }
+
+    public static Object[] row(Product product) {
+        return new Object[]{product.getName(), product.getCategory(), product.getPrice(), product.getStock()};
+    }
+}
@@ -0,0 +1,22 @@
+package iits.workshop.htmx;
+
+import iits.workshop.web.ContentVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bumps the shared {@link ContentVersion} once a product change has committed, so cached product
+ * pages are revalidated against data the client can actually see.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeListener {
+
+    private final ContentVersion contentVersion;
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        contentVersion.changed();
+    }
+}
@@ -1,31 +1,57 @@
 package iits.workshop.htmx;
 
+import iits.workshop.web.ContentVersion;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequiredArgsConstructor
 public class ProductController {
     
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final ContentVersion contentVersion;
     
     @GetMapping("/")
     public String listProducts(
             @RequestParam(required = false, defaultValue = "") String search,
-            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "") String cursor,
             @RequestParam(required = false, defaultValue = "name") String sortBy,
             @RequestParam(required = false, defaultValue = "asc") String direction,
-            Model model) {
+            Model model,
+            ServletWebRequest webRequest) {
+        
+        if (contentVersion.checkNotModified(webRequest, "page")) {
+            return null;
+        }
         
-        Page<Product> productPage = productService.searchProducts(search, page, sortBy, direction);
+        ProductPage productPage = productService.searchProducts(search, cursor, sortBy, direction);
         
-        model.addAttribute("products", productPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", productPage.getTotalPages());
-        model.addAttribute("totalItems", productPage.getTotalElements());
+        model.addAttribute("products", productPage.products());
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("previousCursor", productPage.previousCursor());
+        model.addAttribute("nextCursor", productPage.nextCursor());
+        model.addAttribute("totalItems", productPage.totalItems());
         model.addAttribute("search", search);
         model.addAttribute("sortBy", sortBy);
         model.addAttribute("direction", direction);
@@ -35,13 +61,57 @@ public class ProductController {
         return "products";
     }
     
+    @GetMapping("/products/count")
+    public String countProducts(@RequestParam(required = false, defaultValue = "") String search, Model model,
+                                ServletWebRequest webRequest) {
+        if (contentVersion.checkNotModified(webRequest, "count")) {
+            return null;
+        }
+        model.addAttribute("totalItems", productService.countProducts(search));
+        model.addAttribute("search", search);
+        return "products :: totalItems";
+    }
+    
+    @GetMapping("/products/export")
+    public void exportProducts(@RequestParam(required = false, defaultValue = "") String search,
+                               @RequestParam(required = false, defaultValue = "name") String sortBy,
+                               @RequestParam(required = false, defaultValue = "asc") String direction,
+                               @RequestParam(required = false, defaultValue = "csv") String format,
+                               @RequestParam(required = false, defaultValue = "false") boolean gzip,
+                               HttpServletResponse response) throws IOException {
+        ProductFileFormat fileFormat;
+        try {
+            fileFormat = ProductFileFormat.named(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format " + format);
+        }
+        String filename = "products." + fileFormat.extension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : fileFormat.mediaType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        
+        OutputStream body = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE)
+                : response.getOutputStream();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
+            productService.exportProducts(search, sortBy, direction,
+                    new ProductExportWriter(writer, fileFormat, objectMapper));
+        }
+    }
+    
     @PostMapping("/products/{id}/delete")
     public String deleteProduct(@PathVariable Long id,
                                 @RequestParam(required = false, defaultValue = "") String search,
-                                @RequestParam(required = false, defaultValue = "0") int page,
+                                @RequestParam(required = false, defaultValue = "") String cursor,
                                 @RequestParam(required = false, defaultValue = "name") String sortBy,
                                 @RequestParam(required = false, defaultValue = "asc") String direction) {
         productService.deleteProduct(id);
-        return "redirect:/?search=" + search + "&page=" + page + "&sortBy=" + sortBy + "&direction=" + direction;
+        return "redirect:" + UriComponentsBuilder.fromPath("/")
+                .queryParam("search", search)
+                .queryParam("cursor", cursor)
+                .queryParam("sortBy", sortBy)
+                .queryParam("direction", direction)
+                .encode()
+                .toUriString();
     }
 }
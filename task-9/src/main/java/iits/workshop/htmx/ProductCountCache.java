@@ -0,0 +1,98 @@
+package iits.workshop.htmx;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Total product counts per normalized search term. Missing or expired entries are recounted on
+ * a background executor while the previous value keeps being served, so list requests never
+ * wait for a {@code count(*)}.
+ */
+@Component
+public class ProductCountCache {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofSeconds(30);
+    private static final int MAX_ENTRIES = 1_000;
+
+    private final ProductRepository productRepository;
+    private final TaskExecutor taskExecutor;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private long generation;
+
+    public ProductCountCache(ProductRepository productRepository,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.productRepository = productRepository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Returns the last known count for the term, or {@code null} while the first count is still running.
+     */
+    public synchronized Long getIfPresent(String search) {
+        Entry entry = refreshIfStale(normalize(search));
+        return entry.count;
+    }
+
+    public synchronized CompletableFuture<Long> get(String search) {
+        Entry entry = refreshIfStale(normalize(search));
+        return entry.count != null ? CompletableFuture.completedFuture(entry.count) : entry.pending;
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateAll();
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+    }
+
+    private Entry refreshIfStale(String term) {
+        Entry entry = entries.computeIfAbsent(term, key -> new Entry());
+        boolean expired = System.nanoTime() - entry.loadedAt > TIME_TO_LIVE.toNanos();
+        if ((entry.count == null || expired) && entry.pending == null) {
+            long loadGeneration = generation;
+            entry.pending = CompletableFuture.supplyAsync(() -> count(term), taskExecutor);
+            entry.pending.whenComplete((count, error) -> complete(term, entry, loadGeneration, count));
+        }
+        return entry;
+    }
+
+    private synchronized void complete(String term, Entry entry, long loadGeneration, Long count) {
+        entry.pending = null;
+        if (count != null && loadGeneration == generation && entries.get(term) == entry) {
+            entry.count = count;
+            entry.loadedAt = System.nanoTime();
+        }
+    }
+
+    private long count(String term) {
+        return term.isEmpty()
+            ? productRepository.count()
+            : productRepository.countByNameContainingIgnoreCase(term);
+    }
+
+    private static String normalize(String search) {
+        return search == null ? "" : search.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        private Long count;
+        private long loadedAt;
+        private CompletableFuture<Long> pending;
+    }
+}
@@ -0,0 +1,62 @@
+package iits.workshop.htmx;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque, URL-safe encoding of a keyset position: the sort column value and id of the row a
+ * page starts after (or ends before), so the next query can seek instead of skipping rows.
+ */
+public final class ProductCursor {
+
+    private static final char FORWARD = 'F';
+    private static final char BACKWARD = 'B';
+
+    private ProductCursor() {
+    }
+
+    public static String forward(KeysetScrollPosition position, String sortBy) {
+        return encode(FORWARD, position, sortBy);
+    }
+
+    public static String backward(KeysetScrollPosition position, String sortBy) {
+        return encode(BACKWARD, position, sortBy);
+    }
+
+    public static KeysetScrollPosition decode(String cursor, String sortBy) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3 || parts[0].length() != 1) {
+                return ScrollPosition.keyset();
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortBy, parseValue(sortBy, parts[2]));
+            keys.put("id", Long.valueOf(parts[1]));
+            return parts[0].charAt(0) == BACKWARD ? ScrollPosition.backward(keys) : ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            return ScrollPosition.keyset();
+        }
+    }
+
+    private static String encode(char direction, KeysetScrollPosition position, String sortBy) {
+        Map<String, ?> keys = position.getKeys();
+        String raw = direction + ":" + keys.get("id") + ":" + keys.get(sortBy);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "price" -> Double.valueOf(value);
+            case "stock" -> Integer.valueOf(value);
+            default -> value;
+        };
+    }
+}
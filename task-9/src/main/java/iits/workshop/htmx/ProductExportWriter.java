@@ -0,0 +1,57 @@
+package iits.workshop.htmx;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported products one at a time as CSV or NDJSON. CSV output uses the same
+ * name,category,price,stock header the import expects, and NDJSON lines carry the same four fields,
+ * so exports can be imported again.
+ */
+public class ProductExportWriter implements Consumer<Product> {
+    
+    private final Writer writer;
+    private final ProductFileFormat format;
+    private final ObjectMapper objectMapper;
+    
+    public ProductExportWriter(Writer writer, ProductFileFormat format, ObjectMapper objectMapper) {
+        this.writer = writer;
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == ProductFileFormat.CSV) {
+            write("name,category,price,stock\n");
+        }
+    }
+    
+    @Override
+    public void accept(Product product) {
+        if (format == ProductFileFormat.CSV) {
+            write(csv(product.getName()) + "," + csv(product.getCategory()) + ","
+                + product.getPrice() + "," + product.getStock() + "\n");
+        } else {
+            write(objectMapper.writeValueAsString(ProductFileRow.of(product)) + "\n");
+        }
+    }
+    
+    private void write(String text) {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,39 @@
+package iits.workshop.htmx;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum ProductFileFormat {
+    CSV(MediaType.valueOf("text/csv"), "csv"),
+    NDJSON(MediaType.valueOf("application/x-ndjson"), "ndjson");
+    
+    private final MediaType mediaType;
+    private final String extension;
+    
+    ProductFileFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+    
+    public MediaType mediaType() {
+        return mediaType;
+    }
+    
+    public String extension() {
+        return extension;
+    }
+    
+    public static ProductFileFormat of(MediaType contentType) {
+        for (ProductFileFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported product file format " + contentType);
+    }
+    
+    public static ProductFileFormat named(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,12 @@
+package iits.workshop.htmx;
+
+/**
+ * One product as it appears in an export file: the fields the import reads, and nothing of the
+ * entity's identity or persistence state.
+ */
+public record ProductFileRow(String name, String category, Double price, Integer stock) {
+    
+    public static ProductFileRow of(Product product) {
+        return new ProductFileRow(product.getName(), product.getCategory(), product.getPrice(), product.getStock());
+    }
+}
@@ -0,0 +1,48 @@
+package iits.workshop.htmx;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * The browser picks an import id, loads the progress panel (which opens the event stream) and then
+ * uploads the file as the raw request body, so nothing is buffered by multipart handling.
+ */
+@Controller
+@RequiredArgsConstructor
+public class ProductImportController {
+    
+    private final ProductImportService importService;
+    private final ImportProgressRegistry progressRegistry;
+    
+    @GetMapping("/products/import/{importId:[A-Za-z0-9-]{1,64}}")
+    public String importPanel(@PathVariable String importId, Model model) {
+        model.addAttribute("progress", progressRegistry.latest(importId));
+        return "fragments/import :: panel";
+    }
+    
+    @GetMapping(path = "/products/import/{importId:[A-Za-z0-9-]{1,64}}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter importEvents(@PathVariable String importId) {
+        return progressRegistry.subscribe(importId);
+    }
+    
+    @PostMapping(path = "/products/import/{importId:[A-Za-z0-9-]{1,64}}", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<Void> importProducts(@PathVariable String importId, HttpServletRequest request) throws IOException {
+        ImportProgress progress = importService.importProducts(
+            importId,
+            request.getInputStream(),
+            request.getContentLengthLong(),
+            ProductFileFormat.of(MediaType.parseMediaType(request.getContentType())));
+        return progress.failed()
+            ? ResponseEntity.unprocessableEntity().build()
+            : ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,269 @@
+package iits.workshop.htmx;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports products from a CSV or NDJSON stream line by line. Only the current batch is held in
+ * memory, and since rows are read on the request thread, a slow database slows down the upload
+ * instead of piling up rows.
+ */
+@Service
+public class ProductImportService {
+    
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final long PUBLISH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final List<String> CSV_COLUMNS = List.of("name", "category", "price", "stock");
+    
+    private final ProductBulkWriter bulkWriter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProgressRegistry progressRegistry;
+    private final int batchSize;
+    
+    public ProductImportService(ProductBulkWriter bulkWriter,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                ImportProgressRegistry progressRegistry,
+                                @Value("${workshop.import.batch-size:1000}") int batchSize) {
+        this.bulkWriter = bulkWriter;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.progressRegistry = progressRegistry;
+        this.batchSize = batchSize;
+    }
+    
+    public ImportProgress importProducts(String importId, InputStream body, long totalBytes, ProductFileFormat format) {
+        ImportRun run = new ImportRun(importId, totalBytes, new CountingInputStream(body));
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(run.input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            RowParser parser;
+            if (format == ProductFileFormat.CSV) {
+                parser = csvParser(reader.readLine());
+                lineNumber++;
+            } else {
+                parser = line -> objectMapper.readValue(line, Product.class);
+            }
+            
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                
+                Product product;
+                try {
+                    product = parser.parse(line);
+                } catch (IllegalArgumentException | JacksonException e) {
+                    run.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+                
+                Set<ConstraintViolation<Product>> violations = validator.validate(product);
+                if (!violations.isEmpty()) {
+                    run.reject(lineNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                    continue;
+                }
+                
+                batch.add(ProductBulkWriter.row(product));
+                if (batch.size() == batchSize) {
+                    flush(run, batch);
+                }
+            }
+            flush(run, batch);
+            return run.finish(null);
+        } catch (IOException | RuntimeException e) {
+            return run.finish(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+    
+    private void flush(ImportRun run, List<Object[]> batch) {
+        bulkWriter.insert(batch);
+        run.imported += batch.size();
+        batch.clear();
+        run.publishIfDue();
+    }
+    
+    private static RowParser csvParser(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        List<String> names = splitCsv(header.replace("\uFEFF", ""));
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Missing CSV column " + column);
+            }
+        }
+        
+        return line -> {
+            List<String> values = splitCsv(line);
+            if (values.size() != names.size()) {
+                throw new IllegalArgumentException("Expected " + names.size() + " columns but found " + values.size());
+            }
+            Product product = new Product();
+            product.setName(values.get(columns.get("name")));
+            product.setCategory(values.get(columns.get("category")));
+            product.setPrice(parseNumber(values.get(columns.get("price")), "price", Double::valueOf));
+            product.setStock(parseNumber(values.get(columns.get("stock")), "stock", Integer::valueOf));
+            return product;
+        };
+    }
+    
+    private static <T> T parseNumber(String value, String column, Function<String, T> parser) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+    
+    /**
+     * Splits one CSV record. Fields may be quoted, with doubled quotes as escapes; line breaks
+     * inside quoted fields are not supported.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    @FunctionalInterface
+    private interface RowParser {
+        Product parse(String line);
+    }
+    
+    private final class ImportRun {
+        private final String importId;
+        private final long totalBytes;
+        private final CountingInputStream input;
+        private final List<String> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+        private long lastPublished = System.nanoTime();
+        
+        private ImportRun(String importId, long totalBytes, CountingInputStream input) {
+            this.importId = importId;
+            this.totalBytes = totalBytes;
+            this.input = input;
+            progressRegistry.publish(progress(false, null));
+        }
+        
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + lineNumber + ": " + message);
+            }
+            publishIfDue();
+        }
+        
+        private void publishIfDue() {
+            long now = System.nanoTime();
+            if (now - lastPublished >= PUBLISH_INTERVAL_NANOS) {
+                lastPublished = now;
+                progressRegistry.publish(progress(false, null));
+            }
+        }
+        
+        private ImportProgress finish(String failure) {
+            ImportProgress progress = progress(true, failure);
+            progressRegistry.publish(progress);
+            return progress;
+        }
+        
+        private ImportProgress progress(boolean done, String failure) {
+            return new ImportProgress(importId, input.count, totalBytes, imported, rejected,
+                List.copyOf(errors), done, failure);
+        }
+    }
+    
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+        
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
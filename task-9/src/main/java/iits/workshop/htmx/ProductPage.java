@@ -0,0 +1,19 @@
+package iits.workshop.htmx;
+
+import java.util.List;
+
+public record ProductPage(
+        List<Product> products,
+        String previousCursor,
+        String nextCursor,
+        Long totalItems
+) {
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -1,41 +1,103 @@
 package iits.workshop.htmx;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 @Service
 @RequiredArgsConstructor
 public class ProductService {
-    
+
+    private static final int PAGE_SIZE = 10;
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("name", "category", "price", "stock");
+
     private final ProductRepository productRepository;
-    
+    private final ProductCountCache countCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
     @Transactional(readOnly = true)
-    public Page<Product> searchProducts(String search, int page, String sortBy, String direction) {
-        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) 
-            ? Sort.Direction.DESC 
-            : Sort.Direction.ASC;
-        
-        Pageable pageable = PageRequest.of(page, 10, Sort.by(sortDirection, sortBy));
-        
-        if (search != null && !search.trim().isEmpty()) {
-            return productRepository.findByNameContainingIgnoreCase(search.trim(), pageable);
+    public ProductPage searchProducts(String search, String cursor, String sortBy, String direction) {
+        String column = sortColumn(sortBy);
+        Sort sort = sort(column, direction);
+
+        KeysetScrollPosition position = ProductCursor.decode(cursor, column);
+        String term = search != null ? search.trim() : "";
+
+        Window<Product> window = term.isEmpty()
+            ? productRepository.findBy(position, Limit.of(PAGE_SIZE), sort)
+            : productRepository.findByNameContainingIgnoreCase(term, position, Limit.of(PAGE_SIZE), sort);
+
+        boolean backward = position.scrollsBackward();
+        boolean hasPrevious = backward ? window.hasNext() : !position.isInitial();
+        boolean hasNext = backward || window.hasNext();
+
+        String previousCursor = null;
+        String nextCursor = null;
+        if (!window.isEmpty()) {
+            if (hasPrevious) {
+                previousCursor = ProductCursor.backward((KeysetScrollPosition) window.positionAt(0), column);
+            }
+            if (hasNext) {
+                nextCursor = ProductCursor.forward((KeysetScrollPosition) window.positionAt(window.size() - 1), column);
+            }
         }
-        
-        return productRepository.findAll(pageable);
+
+        return new ProductPage(window.getContent(), previousCursor, nextCursor, countCache.getIfPresent(term));
     }
-    
+
     @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
     }
-    
-    @Transactional(readOnly = true)
+
     public long getTotalCount() {
-        return productRepository.count();
+        return countCache.get("").join();
+    }
+
+    public long countProducts(String search) {
+        return countCache.get(search).join();
+    }
+
+    /**
+     * Hands every product matching the search to the sink, in list order, while reading them from a
+     * database cursor. Each product is detached before it reaches the sink, so the persistence
+     * context stays empty no matter how many rows are exported.
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(String search, String sortBy, String direction, Consumer<Product> sink) {
+        Sort sort = sort(sortColumn(sortBy), direction);
+        String term = search != null ? search.trim() : "";
+
+        try (Stream<Product> products = term.isEmpty()
+            ? productRepository.streamBy(sort)
+            : productRepository.streamByNameContainingIgnoreCase(term, sort)) {
+            products.forEach(product -> {
+                entityManager.detach(product);
+                sink.accept(product);
+            });
+        }
+    }
+
+    private String sortColumn(String sortBy) {
+        return SORTABLE_COLUMNS.contains(sortBy) ? sortBy : "name";
+    }
+
+    private static Sort sort(String column, String direction) {
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction)
+            ? Sort.Direction.DESC
+            : Sort.Direction.ASC;
+        return Sort.by(sortDirection, column).and(Sort.by(sortDirection, "id"));
     }
 }
@@ -0,0 +1,160 @@
+package iits.workshop.web;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Keeps rendered views and fragments as bytes, keyed by view name, a caller-supplied key and the
+ * version of the data region they show. Changing data only bumps the region's version, so stale
+ * entries are never served and simply age out. On a hit neither the model loader nor Thymeleaf
+ * runs; the bytes are copied to the response. Eviction is least recently used, bounded by the
+ * total size of the cached bytes. Writes that bypass JPA, such as the load test's JDBC seeder,
+ * are not seen; run with {@code workshop.fragment-cache.enabled=false} in that case. Applications
+ * that use it register it with {@code @Import(FragmentCache.class)}.
+ */
+public class FragmentCache {
+
+    private final ThymeleafViewResolver viewResolver;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Rendered> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long cachedBytes;
+
+    public FragmentCache(ThymeleafViewResolver viewResolver,
+                         MeterRegistry meterRegistry,
+                         @Value("${workshop.fragment-cache.enabled:true}") boolean enabled,
+                         @Value("${workshop.fragment-cache.max-bytes:16777216}") long maxBytes) {
+        this.viewResolver = viewResolver;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        FunctionCounter.builder("workshop.fragment.cache.requests", hits, LongAdder::sum)
+                .description("Fragment cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("workshop.fragment.cache.requests", misses, LongAdder::sum)
+                .description("Fragment cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("workshop.fragment.cache.size", this, FragmentCache::size)
+                .description("Cached fragments")
+                .register(meterRegistry);
+        Gauge.builder("workshop.fragment.cache.bytes", this, FragmentCache::bytes)
+                .description("Bytes held by cached fragments")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("workshop.fragment.cache.hit.ratio", this, FragmentCache::hitRatio)
+                .description("Share of fragment cache lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a view that serves {@code viewName} from the cache, calling {@code loader} to fill the
+     * model and rendering only on a miss.
+     */
+    public View view(String region, String viewName, String key, Consumer<Map<String, Object>> loader) {
+        return new CachedView(region, viewName, key, loader);
+    }
+
+    /**
+     * Makes every entry of the region unreachable; call after the data it shows has changed.
+     */
+    public void invalidate(String region) {
+        version(region).incrementAndGet();
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private AtomicLong version(String region) {
+        return versions.computeIfAbsent(region, name -> new AtomicLong());
+    }
+
+    private synchronized Rendered get(String cacheKey) {
+        return entries.get(cacheKey);
+    }
+
+    private synchronized void put(String cacheKey, Rendered rendered) {
+        if (rendered.body().length > maxBytes) {
+            return;
+        }
+        Rendered previous = entries.put(cacheKey, rendered);
+        cachedBytes += rendered.body().length - (previous != null ? previous.body().length : 0);
+        Iterator<Rendered> eldest = entries.values().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().body().length;
+            eldest.remove();
+        }
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized long bytes() {
+        return cachedBytes;
+    }
+
+    private record Rendered(String contentType, byte[] body) {
+    }
+
+    private final class CachedView implements View {
+
+        private final String region;
+        private final String viewName;
+        private final String key;
+        private final Consumer<Map<String, Object>> loader;
+
+        private CachedView(String region, String viewName, String key, Consumer<Map<String, Object>> loader) {
+            this.region = region;
+            this.viewName = viewName;
+            this.key = key;
+            this.loader = loader;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+            String cacheKey = region + ':' + version(region).get() + ':' + viewName + ':' + key;
+            Rendered cached = enabled ? get(cacheKey) : null;
+            if (cached != null) {
+                hits.increment();
+                response.setContentType(cached.contentType());
+                response.setContentLength(cached.body().length);
+                response.getOutputStream().write(cached.body());
+                return;
+            }
+
+            misses.increment();
+            Map<String, Object> attributes = new LinkedHashMap<>(model);
+            loader.accept(attributes);
+            View view = viewResolver.resolveViewName(viewName, RequestContextUtils.getLocale(request));
+            ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+            view.render(attributes, request, buffered);
+            if (enabled && buffered.getStatus() == HttpServletResponse.SC_OK) {
+                put(cacheKey, new Rendered(buffered.getContentType(), buffered.getContentAsByteArray()));
+            }
+            buffered.copyBodyToResponse();
+        }
+    }
+}
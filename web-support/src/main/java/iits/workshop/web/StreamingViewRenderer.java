@@ -0,0 +1,62 @@
+package iits.workshop.web;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Renders a view while its rows are still being read from a database cursor. The rows reach the
+ * template as an iterator and each entity is detached once fetched, so neither the result list
+ * nor the persistence context grows with the table, and output starts before the last row is read.
+ * Applications that use it register it with {@code @Import(StreamingViewRenderer.class)}.
+ */
+public class StreamingViewRenderer {
+
+    private final ThymeleafViewResolver viewResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public StreamingViewRenderer(ThymeleafViewResolver viewResolver,
+                                 PlatformTransactionManager transactionManager,
+                                 EntityManager entityManager) {
+        this.viewResolver = viewResolver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+    }
+
+    public <T> void render(String viewName,
+                           Map<String, ?> model,
+                           String rowsAttribute,
+                           Supplier<Stream<T>> rows,
+                           HttpServletRequest request,
+                           HttpServletResponse response) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                Map<String, Object> attributes = new HashMap<>(model);
+                attributes.put(rowsAttribute, stream.map(this::detach).iterator());
+                View view = viewResolver.resolveViewName(viewName, RequestContextUtils.getLocale(request));
+                view.render(attributes, request, response);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to render view " + viewName, e);
+            }
+        });
+    }
+
+    private <T> T detach(T entity) {
+        entityManager.detach(entity);
+        return entity;
+    }
+}